@@ -0,0 +1,118 @@
+package org.nusco.narjillos;
+
+import java.util.Random;
+
+import org.apache.commons.cli.BasicParser;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.nusco.narjillos.core.configuration.Configuration;
+import org.nusco.narjillos.core.utilities.NumberFormatter;
+import org.nusco.narjillos.core.utilities.Version;
+import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.experiment.Archipelago;
+import org.nusco.narjillos.experiment.Experiment;
+import org.nusco.narjillos.experiment.environment.FoodPellet;
+import org.nusco.narjillos.genomics.VolatileDNALog;
+
+/**
+ * The entry point to the "archipelago" program. It runs a few experiments
+ * side by side without graphics, and moves eggs between them (see
+ * Archipelago).
+ */
+public class ArchipelagoRunner {
+
+	private static final int DEFAULT_NUMBER_OF_ISLANDS = 4;
+
+	private static final int DEFAULT_MIGRATION_INTERVAL = 10_000;
+
+	private static final int DEFAULT_MIGRANTS_PER_ISLAND = 1;
+
+	public static void main(String... args) {
+		Options options = new Options();
+		options.addOption("?", "help", false, "print this message");
+		options.addOption("i", "islands", true, "number of islands (default " + DEFAULT_NUMBER_OF_ISLANDS + ")");
+		options.addOption("e", "seed", true, "seed of the first island (the next islands get the next seeds)");
+		options.addOption("m", "migration", true, "ticks between migrations (default " + DEFAULT_MIGRATION_INTERVAL + ")");
+		options.addOption("M", "migrants", true, "eggs that leave each island at each migration (default " + DEFAULT_MIGRANTS_PER_ISLAND + ")");
+
+		CommandLine commandLine;
+		try {
+			commandLine = new BasicParser().parse(options, args);
+		} catch (ParseException e) {
+			printHelpText(options);
+			return;
+		}
+
+		if (commandLine.hasOption("?") || commandLine.getArgs().length > 0) {
+			printHelpText(options);
+			return;
+		}
+
+		try {
+			int numberOfIslands = getInt(commandLine, "islands", DEFAULT_NUMBER_OF_ISLANDS);
+			int migrationInterval = getInt(commandLine, "migration", DEFAULT_MIGRATION_INTERVAL);
+			int migrantsPerIsland = getInt(commandLine, "migrants", DEFAULT_MIGRANTS_PER_ISLAND);
+			long firstSeed = commandLine.hasOption("seed") ? Long.parseLong(commandLine.getOptionValue("seed")) : generateRandomSeed();
+			if (numberOfIslands < 1)
+				throw new RuntimeException("An archipelago needs at least one island");
+
+			long[] seeds = new long[numberOfIslands];
+			for (int i = 0; i < numberOfIslands; i++)
+				seeds[i] = firstSeed + i;
+
+			run(seeds, migrationInterval, migrantsPerIsland);
+		} catch (RuntimeException e) {
+			System.out.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	private static void run(long[] seeds, int migrationInterval, int migrantsPerIsland) {
+		String applicationVersion = Version.read();
+		System.out.println("Narjillos v" + applicationVersion);
+		System.out.println("Starting archipelago of " + seeds.length + " islands from seed " + seeds[0] + " (no persistence)");
+
+		Archipelago archipelago = new Archipelago(seeds, Configuration.ECOSYSTEM_BLOCKS_PER_EDGE_IN_EXPERIMENT * 1000, applicationVersion,
+			VolatileDNALog::new, migrationInterval, migrantsPerIsland);
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> archipelago.terminate().forEach(System.out::println)));
+
+		System.out.println("Ticks:\tIsland:\tNarji:\tFood:");
+		do {
+			if (archipelago.getTotalTicks() % Configuration.EXPERIMENT_SAMPLE_INTERVAL_TICKS == 0)
+				printReport(archipelago);
+			if (isExtinct(archipelago))
+				break;
+		} while (archipelago.tick());
+		System.exit(0);
+	}
+
+	private static boolean isExtinct(Archipelago archipelago) {
+		return archipelago.getIslands().stream().allMatch(Experiment::lifeIsExtinct);
+	}
+
+	private static void printReport(Archipelago archipelago) {
+		String ticks = NumberFormatter.format(archipelago.getTotalTicks());
+		for (int i = 0; i < archipelago.getIslands().size(); i++) {
+			Experiment island = archipelago.getIslands().get(i);
+			System.out.println(ticks + "\t" + (i + 1) + "\t" + island.getEcosystem().getCount(Narjillo.LABEL) + "\t"
+				+ island.getEcosystem().getCount(FoodPellet.LABEL));
+		}
+	}
+
+	private static int getInt(CommandLine commandLine, String option, int defaultValue) {
+		if (!commandLine.hasOption(option))
+			return defaultValue;
+		return Integer.parseInt(commandLine.getOptionValue(option));
+	}
+
+	private static long generateRandomSeed() {
+		return Math.abs(new Random().nextInt() % 1_000_000_000);
+	}
+
+	private static void printHelpText(Options commandLineOptions) {
+		new HelpFormatter().printHelp("archipelago <options>", commandLineOptions);
+	}
+}
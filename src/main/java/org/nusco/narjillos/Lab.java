@@ -53,7 +53,8 @@ class Lab {
 
 			String databaseFile = args[0];
 			Experiment experiment = ExperimentLoader.load(databaseFile, true);
-			HistoryLog historyLog = new PersistentHistoryLog(experiment.getId());
+			experiment.setHistoryLog(new PersistentHistoryLog(experiment.getId()));
+			HistoryLog historyLog = experiment.getHistoryLog();
 			DNAAnalyzer dnaAnalyzer = new DNAAnalyzer(new PersistentDNALog(experiment.getId()));
 
 			if (commandLine.hasOption("dna"))
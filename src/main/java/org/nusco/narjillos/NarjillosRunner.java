@@ -5,6 +5,7 @@ import org.nusco.narjillos.application.MainNarjillosApplication;
 import org.nusco.narjillos.application.PetriDish;
 import org.nusco.narjillos.core.configuration.Configuration;
 import org.nusco.narjillos.core.utilities.Version;
+import org.nusco.narjillos.experiment.environment.ExecutionStrategy;
 
 /**
  * The entry point to the "narjillos" program.
@@ -24,7 +25,8 @@ public class NarjillosRunner {
 
 	private static void runWithoutGraphics(CommandLineOptions options) {
 		String applicationVersion = Version.read();
-		final PetriDish dish = new PetriDish(applicationVersion, options, Configuration.ECOSYSTEM_BLOCKS_PER_EDGE_IN_EXPERIMENT * 1000);
+		final PetriDish dish = new PetriDish(applicationVersion, options, Configuration.ECOSYSTEM_BLOCKS_PER_EDGE_IN_EXPERIMENT * 1000,
+			ExecutionStrategy.fromName(Configuration.ECOSYSTEM_EXECUTION_STRATEGY));
 
 		Runtime.getRuntime().addShutdownHook(new Thread(dish::terminate));
 
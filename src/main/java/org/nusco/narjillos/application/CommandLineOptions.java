@@ -14,7 +14,9 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.UnrecognizedOptionException;
+import org.nusco.narjillos.core.configuration.Configuration;
 import org.nusco.narjillos.experiment.Experiment;
+import org.nusco.narjillos.experiment.environment.ExecutionStrategy;
 import org.nusco.narjillos.persistence.ExperimentLoader;
 
 @SuppressWarnings("serial")
@@ -32,6 +34,10 @@ public class CommandLineOptions extends Options {
 
 	private String dna = null;
 
+	private ExecutionStrategy executionStrategy = null;
+
+	private int tilesPerEdge = Configuration.ECOSYSTEM_TILES_PER_EDGE;
+
 	public static CommandLineOptions parse(boolean printWarnings, String... args) {
 		try {
 			return new CommandLineOptions(printWarnings, args);
@@ -51,6 +57,8 @@ public class CommandLineOptions extends Options {
 		addOption("s", "save", false, "save experiment to file");
 		addOption("e", "seed", true, "start experiment with given seed");
 		addOption("d", "dna", true, "populate experiment with specific DNA (takes genes, or a file containing genes)");
+		addOption("x", "execution", true, "how to run the ticks in parallel (" + ExecutionStrategy.getNames() + ")");
+		addOption("t", "tiles", true, "split the ecosystem into a grid with this many tiles per edge");
 
 		CommandLineParser parser = new BasicParser();
 
@@ -79,6 +87,12 @@ public class CommandLineOptions extends Options {
 			if (line.hasOption("dna"))
 				setDna(line.getOptionValue("dna"));
 
+			if (line.hasOption("execution"))
+				setExecutionStrategy(line.getOptionValue("execution"));
+
+			if (line.hasOption("tiles"))
+				setTilesPerEdge(line.getOptionValue("tiles"));
+
 			if (line.getArgs().length == 0)
 				return;
 
@@ -120,6 +134,17 @@ public class CommandLineOptions extends Options {
 		return dna;
 	}
 
+	/**
+	 * Null if the user didn't pick an execution strategy.
+	 */
+	public ExecutionStrategy getExecutionStrategy() {
+		return executionStrategy;
+	}
+
+	public int getTilesPerEdge() {
+		return tilesPerEdge;
+	}
+
 	private String getHelpText() {
 		StringWriter stringWriter = new StringWriter();
 		new HelpFormatter().printHelp(new PrintWriter(stringWriter), 1000, " ", "", this, 2, 2, "");
@@ -147,6 +172,16 @@ public class CommandLineOptions extends Options {
 		this.seed = Long.parseLong(seedWithoutVersion);
 	}
 
+	private void setExecutionStrategy(String executionStrategy) {
+		this.executionStrategy = ExecutionStrategy.fromName(executionStrategy);
+	}
+
+	private void setTilesPerEdge(String tilesPerEdge) {
+		this.tilesPerEdge = Integer.parseInt(tilesPerEdge);
+		if (this.tilesPerEdge < 1)
+			throw new RuntimeException("You need at least one tile per edge.");
+	}
+
 	private void setDna(String dna) {
 		if (dna.startsWith("{")) {
 			// inline DNA
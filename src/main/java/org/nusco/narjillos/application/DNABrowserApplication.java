@@ -229,43 +229,27 @@ public class DNABrowserApplication extends NarjillosApplication {
 	}
 
 	private synchronized void resetSpecimen() {
-		Narjillo from = getDish().getNarjillo();
 		getDish().resetSpecimen();
-		Narjillo to = getDish().getNarjillo();
-		switchNarjillo(from, to);
+		trackNarjillo();
 	}
 
 	private synchronized void moveBack(int skip) {
-		Narjillo from = getDish().getNarjillo();
 		getDish().moveBack(skip);
-		Narjillo to = getDish().getNarjillo();
-		switchNarjillo(from, to);
+		trackNarjillo();
 	}
 
 	private synchronized void moveForward(int skip) {
-		Narjillo from = getDish().getNarjillo();
 		getDish().moveForward(skip);
-		Narjillo to = getDish().getNarjillo();
-		switchNarjillo(from, to);
+		trackNarjillo();
 	}
 
 	private synchronized void moveToFirst() {
-		Narjillo from = getDish().getNarjillo();
 		getDish().moveToFirst();
-		Narjillo to = getDish().getNarjillo();
-		switchNarjillo(from, to);
+		trackNarjillo();
 	}
 
 	private synchronized void moveToLast() {
-		Narjillo from = getDish().getNarjillo();
 		getDish().moveToLast();
-		Narjillo to = getDish().getNarjillo();
-		switchNarjillo(from, to);
-	}
-
-	private synchronized void switchNarjillo(Narjillo from, Narjillo to) {
-		Vector centerOffset = to.getPosition().minus(to.getCenter());
-		to.getBody().forcePosition(from.getCenter().plus(centerOffset), 180);
 		trackNarjillo();
 	}
 }
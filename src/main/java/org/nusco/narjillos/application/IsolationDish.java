@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.things.Energy;
+import org.nusco.narjillos.core.things.Thing;
 import org.nusco.narjillos.core.utilities.NumGen;
 import org.nusco.narjillos.creature.Narjillo;
 import org.nusco.narjillos.experiment.environment.IsolationEnvironment;
@@ -80,7 +81,22 @@ class IsolationDish implements Dish {
 	}
 
 	synchronized void resetSpecimen() {
-		environment.updateSpecimen(createNarjillo(dnas.get(currentDnaIndex)));
+		Narjillo narjillo = createNarjillo(dnas.get(currentDnaIndex));
+
+		// Put the new specimen where the old one was. Do it before the new
+		// specimen goes into the environment, where it starts ticking.
+		List<Thing> previousNarjillos = environment.getAll(Narjillo.LABEL);
+		if (!previousNarjillos.isEmpty()) {
+			Vector centerOffset = narjillo.getPosition().minus(narjillo.getCenter());
+			narjillo.getBody().forcePosition(previousNarjillos.get(0).getCenter().plus(centerOffset), 180);
+		}
+
+		// The browser is going to look at the new specimen anyway, so
+		// publish it as it is now, rather than as it was when it was born.
+		narjillo.markObserved();
+		narjillo.publishSnapshot();
+
+		environment.updateSpecimen(narjillo);
 	}
 
 	@Override
@@ -18,6 +18,7 @@ import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.utilities.Chronometer;
 import org.nusco.narjillos.core.configuration.Configuration;
 import org.nusco.narjillos.core.utilities.Version;
+import org.nusco.narjillos.experiment.environment.ExecutionStrategy;
 
 /**
  * The main JavaFX Application class. It binds model and view together, and also
@@ -59,7 +60,16 @@ public class MainNarjillosApplication extends NarjillosApplication {
 			public void run() {
 
 				String applicationVersion = Version.read();
-				setDish(new PetriDish(applicationVersion, options, Configuration.ECOSYSTEM_BLOCKS_PER_EDGE_IN_APP * 1000));
+				// Unless the user asks otherwise, tick narjillos sequentially
+				// when running an app. The idea is that parallel processing is
+				// essential for speed when you run a command-line experiment -
+				// but when you run with graphics, normal realtime speed is
+				// adequate, and you want to save CPU cores for the graphics
+				// instead.
+				PetriDish dish = new PetriDish(applicationVersion, options, Configuration.ECOSYSTEM_BLOCKS_PER_EDGE_IN_APP * 1000,
+					ExecutionStrategy.SEQUENTIAL);
+
+				setDish(dish);
 
 				isModelInitialized[0] = true;
 
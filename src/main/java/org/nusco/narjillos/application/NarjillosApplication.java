@@ -18,7 +18,6 @@ import org.nusco.narjillos.core.geometry.FastMath;
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.creature.Egg;
 import org.nusco.narjillos.creature.Narjillo;
-import org.nusco.narjillos.experiment.environment.Ecosystem;
 import org.nusco.narjillos.experiment.environment.Environment;
 import org.nusco.narjillos.experiment.environment.FoodPellet;
 
@@ -52,13 +51,6 @@ abstract class NarjillosApplication extends Application {
 		FastMath.setUp();
 		Platform.setImplicitExit(true);
 
-		// Use a single thread to tick narjillos when running an app.
-		// The idea is that parallel processing is essential for speed
-		// when you run a command-line experiment - but when you run
-		// with graphics, normal realtime speed is adequate, and you
-		// want to save CPU cores for the graphics instead.
-		Ecosystem.numberOfBackgroundThreads = 1;
-
 		startModelThread(getProgramArguments());
 
 		System.gc(); // minimize GC during the first stages on animation
@@ -10,7 +10,9 @@ import org.nusco.narjillos.experiment.HistoryLog;
 import org.nusco.narjillos.experiment.VolatileHistoryLog;
 import org.nusco.narjillos.experiment.environment.Ecosystem;
 import org.nusco.narjillos.experiment.environment.Environment;
+import org.nusco.narjillos.experiment.environment.ExecutionStrategy;
 import org.nusco.narjillos.experiment.environment.FoodPellet;
+import org.nusco.narjillos.experiment.environment.WorkerUtilization;
 import org.nusco.narjillos.genomics.DNALog;
 import org.nusco.narjillos.genomics.VolatileDNALog;
 import org.nusco.narjillos.persistence.ExperimentLog;
@@ -34,8 +36,16 @@ public class PetriDish implements Dish {
 
 	private volatile long lastSaveTime = System.currentTimeMillis();
 
-	public PetriDish(String version, CommandLineOptions options, int size) {
-		experiment = createExperiment(version, options, size);
+	/**
+	 * The experiment ticks with the execution strategy in the options, or
+	 * with the default strategy if the options don't have one.
+	 */
+	public PetriDish(String version, CommandLineOptions options, int size, ExecutionStrategy defaultExecutionStrategy) {
+		ExecutionStrategy executionStrategy = options.getExecutionStrategy();
+		if (executionStrategy == null)
+			executionStrategy = defaultExecutionStrategy;
+		experiment = createExperiment(version, options, size, executionStrategy);
+		experiment.getEcosystem().setTilesPerEdge(options.getTilesPerEdge());
 		persistent = options.isPersistent();
 		if (persistent) {
 			experimentLog = new ExperimentLog(experiment.getId());
@@ -84,8 +94,8 @@ public class PetriDish implements Dish {
 		}
 	}
 
-	private Experiment createExperiment(String applicationVersion, CommandLineOptions options, int size) {
-		Ecosystem ecosystem = new Ecosystem(size, true);
+	private Experiment createExperiment(String applicationVersion, CommandLineOptions options, int size, ExecutionStrategy executionStrategy) {
+		Ecosystem ecosystem = new Ecosystem(size, executionStrategy);
 		String dna = options.getDna();
 
 		System.out.println("Narjillos v" + applicationVersion);
@@ -99,6 +109,7 @@ public class PetriDish implements Dish {
 		} else if (options.getExperiment() != null) {
 			System.out.print("Continuining experiment " + options.getExperiment().getId());
 			experiment = options.getExperiment();
+			experiment.getEcosystem().setExecutionStrategy(executionStrategy);
 			setPersistenceStrategies(experiment, options);
 			return experiment;
 		} else if (options.getSeed() == CommandLineOptions.NO_SEED) {
@@ -166,6 +177,7 @@ public class PetriDish implements Dish {
 	private void save() {
 		isSaving = true;
 		System.out.print("> Saving...");
+		experiment.awaitBookkeeping();
 		experimentLog.save(experiment);
 		System.out.println(" Done.");
 		isSaving = false;
@@ -176,7 +188,16 @@ public class PetriDish implements Dish {
 	}
 
 	public String getStatistics() {
-		return "TPS: " + getTicksInLastSecond() + " / Ticks: " + NumberFormatter.format(getTotalTicks());
+		return "TPS: " + getTicksInLastSecond() + " / Ticks: " + NumberFormatter.format(getTotalTicks()) + " / Workers: " + getWorkersStatistics();
+	}
+
+	private String getWorkersStatistics() {
+		WorkerUtilization utilization = experiment.getEcosystem().getWorkerUtilization();
+		return toPercent(utilization.getAverageUtilizationInLastSecond()) + " (min " + toPercent(utilization.getMinimumUtilizationInLastSecond()) + ")";
+	}
+
+	private static String toPercent(double value) {
+		return Math.round(value * 100) + "%";
 	}
 
 	private int getTicksInLastSecond() {
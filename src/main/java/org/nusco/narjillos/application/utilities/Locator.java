@@ -98,8 +98,12 @@ public class Locator {
 		double minDistance = Double.MAX_VALUE;
 
 		for (Thing thing : environment.getAll(label)) {
-			double distance = thing.getCenter().minus(position).getLength();
-			double radius = Math.max(thing.getRadius(), thingMinRadius);
+			Vector center = ThingSnapshots.getCenter(thing);
+			if (center == null)
+				continue;
+
+			double distance = center.minus(position).getLength();
+			double radius = Math.max(ThingSnapshots.getRadius(thing), thingMinRadius);
 
 			if (distance < radius && distance < minDistance) {
 				minDistance = distance;
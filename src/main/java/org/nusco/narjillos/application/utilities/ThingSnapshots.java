@@ -0,0 +1,41 @@
+package org.nusco.narjillos.application.utilities;
+
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.things.Thing;
+import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.creature.NarjilloSnapshot;
+
+/**
+ * Reads the position and size of things from outside the thread that ticks
+ * them. Narjillos change all the time, so this reads their snapshots (see
+ * Narjillo.getSnapshot()). Other things are read directly.
+ */
+final class ThingSnapshots {
+
+	private ThingSnapshots() {
+	}
+
+	/**
+	 * Returns null if the thing is a narjillo that didn't publish a snapshot
+	 * yet.
+	 */
+	static Vector getCenter(Thing thing) {
+		if (!(thing instanceof Narjillo))
+			return thing.getCenter();
+
+		NarjilloSnapshot snapshot = ((Narjillo) thing).getSnapshot();
+		return (snapshot != null) ? snapshot.getCenterOfMass() : null;
+	}
+
+	/**
+	 * Returns zero if the thing is a narjillo that didn't publish a snapshot
+	 * yet.
+	 */
+	static double getRadius(Thing thing) {
+		if (!(thing instanceof Narjillo))
+			return thing.getRadius();
+
+		NarjilloSnapshot snapshot = ((Narjillo) thing).getSnapshot();
+		return (snapshot != null) ? snapshot.getRadius() : 0;
+	}
+}
@@ -4,6 +4,7 @@ import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.things.Thing;
 import org.nusco.narjillos.creature.Egg;
 import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.creature.NarjilloSnapshot;
 import org.nusco.narjillos.experiment.environment.FoodPellet;
 
 public class ThingTracker {
@@ -43,12 +44,12 @@ public class ThingTracker {
 		}
 
 		if (currentTarget.getLabel().equals(Narjillo.LABEL)) {
-			Narjillo narjillo = (Narjillo) currentTarget;
-			if (narjillo.isDead()) {
+			NarjilloSnapshot snapshot = ((Narjillo) currentTarget).getSnapshot();
+			if (snapshot != null && snapshot.isDead()) {
 				if (isDemoMode())
 					startTrackingRandomLivingThing();
 				else {
-					Thing nextClosestNarjillo = locator.findNarjilloAt(narjillo.getPosition());
+					Thing nextClosestNarjillo = locator.findNarjilloAt(snapshot.getPosition());
 					startTracking(nextClosestNarjillo);
 				}
 			}
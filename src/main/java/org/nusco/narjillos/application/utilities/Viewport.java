@@ -120,12 +120,18 @@ public class Viewport {
 	}
 
 	public void centerOn(Thing target) {
-		targetCenterEC = target.getCenter();
+		Vector center = ThingSnapshots.getCenter(target);
+		if (center != null)
+			targetCenterEC = center;
 	}
 
 	public void centerAndZoomOn(Thing target) {
 		centerOn(target);
-		targetZoomLevel = Math.min(getMaxZoomLevel(), getZoomToFitLevel(target.getRadius()));
+
+		// Keep the current zoom for narjillos that don't have a snapshot yet
+		double radius = ThingSnapshots.getRadius(target);
+		if (radius > 0)
+			targetZoomLevel = Math.min(getMaxZoomLevel(), getZoomToFitLevel(radius));
 	}
 
 	public void zoomToMaxLevel() {
@@ -3,8 +3,8 @@ package org.nusco.narjillos.application.views;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
 
-import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.creature.NarjilloSnapshot;
 
 /**
  * Only used for debugging.
@@ -21,8 +21,13 @@ class CenterOfMassView extends RoundObjectView {
 
 	@Override
 	public Node toNode(double zoomLevel, boolean infraredOn, boolean effectsOn) {
-		Vector position = narjillo.getCenterOfMass();
-		moveTo(position);
+		NarjilloSnapshot snapshot = narjillo.getSnapshot();
+
+		// Nothing to show until the narjillo publishes its first snapshot
+		if (snapshot == null)
+			return null;
+
+		moveTo(snapshot.getCenterOfMass());
 		return getShape();
 	}
 }
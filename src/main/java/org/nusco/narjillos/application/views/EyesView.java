@@ -11,6 +11,7 @@ import org.nusco.narjillos.application.utilities.Viewport;
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.geometry.ZeroVectorAngleException;
 import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.creature.NarjilloSnapshot;
 import org.nusco.narjillos.creature.body.Fiber;
 
 class EyesView implements ItemView {
@@ -71,22 +72,24 @@ class EyesView implements ItemView {
 
 		group.getChildren().clear();
 
-		Color eyeColor = toEyeColor(zoomLevel, infraredOn);
+		NarjilloSnapshot snapshot = narjillo.getSnapshot();
+
+		Color eyeColor = toEyeColor(snapshot, zoomLevel, infraredOn);
 		eye1.setFill(eyeColor);
 		eye2.setFill(eyeColor);
 
 		group.getChildren().add(eye1);
 		group.getChildren().add(eye2);
 
-		double eyesDirection = narjillo.getBody().getHead().getAbsoluteAngle() + 90;
+		double eyesDirection = snapshot.getHeadAngle() + 90;
 
-		Color pupilColor = toPupilColor(zoomLevel);
+		Color pupilColor = toPupilColor(snapshot, zoomLevel);
 		pupil1.setFill(pupilColor);
 		pupil2.setFill(pupilColor);
 
 		double pupilDirection;
 		try {
-			pupilDirection = narjillo.getMouth().getDirection().getAngle() - eyesDirection - 90;
+			pupilDirection = snapshot.getMouthDirection().getAngle() - eyesDirection - 90;
 		} catch (ZeroVectorAngleException e) {
 			pupilDirection = 0;
 		}
@@ -103,7 +106,7 @@ class EyesView implements ItemView {
 		group.getChildren().add(pupil2);
 
 		group.getTransforms().clear();
-		Vector position = narjillo.getPosition();
+		Vector position = snapshot.getPosition();
 		group.getTransforms().add(new Translate(position.x, position.y));
 		group.getTransforms().add(new Rotate(eyesDirection));
 
@@ -113,27 +116,27 @@ class EyesView implements ItemView {
 	@Override
 	public boolean isVisible(Viewport viewport) {
 		double margin = Math.max(eye1.getRadius() * 2, eye2.getRadius() * 2);
-		return viewport.isVisible(narjillo.getPosition(), margin);
+		return viewport.isVisible(narjillo.getSnapshot().getPosition(), margin);
 	}
 
-	private Color toEyeColor(double zoomLevel, boolean infraredOn) {
+	private Color toEyeColor(NarjilloSnapshot snapshot, double zoomLevel, boolean infraredOn) {
 		if (infraredOn)
 			return Color.WHITE;
-		double red = narjillo.isInPain() ? 1 : eyeRed;
-		double green = narjillo.isInPain() ? 0 : eyeGreen;
-		double blue = narjillo.isInPain() ? 0 : eyeBlue;
+		double red = snapshot.isInPain() ? 1 : eyeRed;
+		double green = snapshot.isInPain() ? 0 : eyeGreen;
+		double blue = snapshot.isInPain() ? 0 : eyeBlue;
 		return new Color(red, green, blue, getZoomAlpha(zoomLevel));
 	}
 
-	private Color toPupilColor(double zoomLevel) {
-		return new Color(0, 0, 0, Math.min(getZoomAlpha(zoomLevel), getEnergyAlpha()));
+	private Color toPupilColor(NarjilloSnapshot snapshot, double zoomLevel) {
+		return new Color(0, 0, 0, Math.min(getZoomAlpha(zoomLevel), getEnergyAlpha(snapshot)));
 	}
 
-	private double getEnergyAlpha() {
-		double maxEnergy = narjillo.getEnergy().getMaximumValue();
+	private double getEnergyAlpha(NarjilloSnapshot snapshot) {
+		double maxEnergy = snapshot.getMaximumEnergy();
 		if (maxEnergy <= 0)
 			return 0;
-		return narjillo.getEnergy().getValue() * 3 / maxEnergy;
+		return snapshot.getEnergy() * 3 / maxEnergy;
 	}
 
 	private double getZoomAlpha(double zoomLevel) {
@@ -12,6 +12,7 @@ import org.nusco.narjillos.core.geometry.FastMath;
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.geometry.ZeroVectorAngleException;
 import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.creature.NarjilloSnapshot;
 
 class MouthView implements ItemView {
 
@@ -43,13 +44,15 @@ class MouthView implements ItemView {
 		if (zoomLevel < MINIMUM_ZOOM_LEVEL)
 			return null;
 
-		Color color = getColor(zoomLevel, infraredOn);
+		NarjilloSnapshot snapshot = getNarjillo().getSnapshot();
+
+		Color color = getColor(snapshot, zoomLevel, infraredOn);
 		for (int i = 0; i < lines.length; i++) {
 			lines[i].setStroke(color);
-			rotateLine(i);
+			rotateLine(snapshot, i);
 		}
 
-		Vector position = getNarjillo().getPosition();
+		Vector position = snapshot.getPosition();
 		group.getTransforms().clear();
 		group.getTransforms().add(new Translate(position.x, position.y));
 
@@ -58,41 +61,41 @@ class MouthView implements ItemView {
 
 	@Override
 	public boolean isVisible(Viewport viewport) {
-		return viewport.isVisible(getNarjillo().getPosition(), LINE_LENGTH);
+		return viewport.isVisible(getNarjillo().getSnapshot().getPosition(), LINE_LENGTH);
 	}
 
-	private void rotateLine(int index) {
+	private void rotateLine(NarjilloSnapshot snapshot, int index) {
 		double lineLag = (360 / (lines.length + 1) * index) % 360;
-		double lineAngle = FastMath.sin(getNarjillo().getBrainWaveAngle() - lineLag) * MAX_LINE_ANGLE;
+		double lineAngle = FastMath.sin(snapshot.getBrainWaveAngle() - lineLag) * MAX_LINE_ANGLE;
 		lines[index].getTransforms().clear();
-		lines[index].getTransforms().add(new Rotate(getMouthAngle() + lineAngle));
+		lines[index].getTransforms().add(new Rotate(getMouthAngle(snapshot) + lineAngle));
 	}
 
-	private Color getColor(double zoomLevel, boolean infraredOn) {
+	private Color getColor(NarjilloSnapshot snapshot, double zoomLevel, boolean infraredOn) {
 		if (infraredOn)
 			return Color.WHITE;
-		return new Color(0, 0.6, 0, getOpacity(zoomLevel));
+		return new Color(0, 0.6, 0, getOpacity(snapshot, zoomLevel));
 	}
 
-	private double getOpacity(double zoomLevel) {
+	private double getOpacity(NarjilloSnapshot snapshot, double zoomLevel) {
 		double opacityBasedOnZoom = (zoomLevel - MINIMUM_ZOOM_LEVEL) * 20;
-		double opacity = Math.min(opacityBasedOnZoom, getOpacityBasedOnAge());
+		double opacity = Math.min(opacityBasedOnZoom, getOpacityBasedOnAge(snapshot));
 		return Math.max(0, Math.min(1, opacity));
 	}
 
-	private double getOpacityBasedOnAge() {
+	private double getOpacityBasedOnAge(NarjilloSnapshot snapshot) {
 		final double AGE_OF_FULL_OPACITY = 100;
 
-		long age = getNarjillo().getAge();
+		long age = snapshot.getAge();
 		if (age > AGE_OF_FULL_OPACITY)
 			return 1;
 
 		return age / AGE_OF_FULL_OPACITY;
 	}
 
-	private double getMouthAngle() {
+	private double getMouthAngle(NarjilloSnapshot snapshot) {
 		try {
-			return getNarjillo().getMouth().getDirection().getAngle();
+			return snapshot.getMouthDirection().getAngle();
 		} catch (ZeroVectorAngleException e) {
 			return 0;
 		}
@@ -66,8 +66,9 @@ class NarjilloView extends ThingView {
 
 	private List<OrganView> createOrganViews() {
 		List<OrganView> result = new LinkedList<>();
-		for (ConnectedOrgan bodyPart : getNarjillo().getOrgans())
-			result.add(new OrganView(bodyPart, getNarjillo()));
+		List<ConnectedOrgan> bodyParts = getNarjillo().getOrgans();
+		for (int i = 0; i < bodyParts.size(); i++)
+			result.add(new OrganView(bodyParts.get(i), i, getNarjillo()));
 		return result;
 	}
 
@@ -77,6 +78,10 @@ class NarjilloView extends ThingView {
 
 	@Override
 	public boolean isVisible(Viewport viewport) {
+		// Nothing to show until the narjillo publishes its first snapshot
+		if (getNarjillo().getSnapshot() == null)
+			return false;
+
 		for (OrganView organView : organs)
 			if (organView.isVisible(viewport))
 				return true;
@@ -15,8 +15,10 @@ import org.nusco.narjillos.core.geometry.Segment;
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.geometry.ZeroVectorAngleException;
 import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.creature.NarjilloSnapshot;
 import org.nusco.narjillos.creature.body.ConnectedOrgan;
 import org.nusco.narjillos.creature.body.Fiber;
+import org.nusco.narjillos.creature.body.OrganSnapshot;
 
 public class OrganView implements ItemView {
 
@@ -42,8 +44,12 @@ public class OrganView implements ItemView {
 
 	private final Narjillo narjillo;
 
+	// Only for the things that never change, like the fiber. Everything
+	// else comes from the narjillo's snapshot.
 	private final ConnectedOrgan organ;
 
+	private final int index;
+
 	private final Color baseColor;
 
 	private final Rectangle segment;
@@ -54,8 +60,9 @@ public class OrganView implements ItemView {
 
 	private Segment previousOrganPosition;
 
-	public OrganView(ConnectedOrgan organ, Narjillo narjillo) {
+	public OrganView(ConnectedOrgan organ, int index, Narjillo narjillo) {
 		this.organ = organ;
+		this.index = index;
 		this.narjillo = narjillo;
 
 		baseColor = toRGBColor(this.organ.getFiber());
@@ -67,8 +74,6 @@ public class OrganView implements ItemView {
 			joint = new Circle(MIN_CIRCLE_RADIUS);
 		else
 			joint = null;
-
-		previousOrganPosition = this.organ.toSegment();
 	}
 
 	@Override
@@ -76,31 +81,36 @@ public class OrganView implements ItemView {
 		if (organ.isAtrophic())
 			return null;
 
-		double alpha = getAlpha(zoomLevel);
+		NarjilloSnapshot narjilloSnapshot = getNarjillo().getSnapshot();
+		OrganSnapshot snapshot = narjilloSnapshot.getOrgan(index);
+
+		double alpha = getAlpha(snapshot, narjilloSnapshot, zoomLevel);
 		if (alpha == 0)
 			return null; // perfectly transparent. don't draw.
 
-		Shape shape = getShape(zoomLevel, effectsOn);
+		Shape shape = getShape(snapshot, zoomLevel, effectsOn);
 
 		addFill(shape, infraredOn, alpha);
 		addStroke(shape, infraredOn, alpha, zoomLevel);
-		addMotionBlurEffect(shape, zoomLevel, effectsOn);
+		addMotionBlurEffect(shape, snapshot, zoomLevel, effectsOn);
 
-		previousOrganPosition = organ.toSegment();
+		previousOrganPosition = snapshot.toSegment();
 
 		return shape;
 	}
 
 	@Override
 	public boolean isVisible(Viewport viewport) {
-		double margin = Math.max(segment.getWidth() / 2 + getOverlap(), segment.getHeight() / 2);
+		OrganSnapshot snapshot = getNarjillo().getSnapshot().getOrgan(index);
+		double margin = Math.max(segment.getWidth() / 2 + getOverlap(snapshot.getThickness()), segment.getHeight() / 2);
 		if (joint != null)
 			margin = margin + joint.getRadius();  // worst case
-		return viewport.isVisible(organ.getCenterOfMass(), margin);
+		return viewport.isVisible(snapshot.getCenterOfMass(), margin);
 	}
 
+	// Starts with the adult size, until the organ is drawn for the first time.
 	private Rectangle createSegment() {
-		Rectangle result = new Rectangle(0, 0, organ.getLength() + getOverlap() * 2, organ.getThickness());
+		Rectangle result = new Rectangle(0, 0, organ.getAdultLength() + getOverlap(organ.getAdultThickness()) * 2, organ.getAdultThickness());
 
 		double arc = (organ.getAdultLength() * organ.getAdultThickness()) % 15 + 15;
 		result.setArcWidth(arc);
@@ -109,8 +119,8 @@ public class OrganView implements ItemView {
 		return result;
 	}
 
-	private double getOverlap() {
-		return Math.min(organ.getThickness() / 2, MAX_OVERLAP);
+	private double getOverlap(double organThickness) {
+		return Math.min(organThickness / 2, MAX_OVERLAP);
 	}
 
 	private boolean shouldHaveAJoint() {
@@ -124,32 +134,33 @@ public class OrganView implements ItemView {
 	}
 
 	private boolean isJointPotentiallyVisible() {
-		return getJointRadius(organ.getAdultThickness()) > Math.min(organ.getAdultThickness(), getOverlap());
+		return getJointRadius(organ.getAdultThickness()) > Math.min(organ.getAdultThickness(), getOverlap(organ.getAdultThickness()));
 	}
 
-	private Shape getShape(double zoomLevel, boolean effectsOn) {
+	private Shape getShape(OrganSnapshot snapshot, double zoomLevel, boolean effectsOn) {
+		double overlap = getOverlap(snapshot.getThickness());
 
-		segment.setWidth(organ.getLength() + getOverlap() * 2);
-		segment.setHeight(organ.getThickness());
+		segment.setWidth(snapshot.getLength() + overlap * 2);
+		segment.setHeight(snapshot.getThickness());
 
 		segment.getTransforms().clear();
 		// overlap slightly and shift to center based on thickness
-		double widthCenter = organ.getThickness() / 2;
-		segment.getTransforms().add(moveToStartPoint());
-		segment.getTransforms().add(new Translate(-getOverlap(), -widthCenter));
-		segment.getTransforms().add(new Rotate(organ.getAbsoluteAngle(), getOverlap(), widthCenter));
+		double widthCenter = snapshot.getThickness() / 2;
+		segment.getTransforms().add(moveToStartPoint(snapshot));
+		segment.getTransforms().add(new Translate(-overlap, -widthCenter));
+		segment.getTransforms().add(new Rotate(snapshot.getAbsoluteAngle(), overlap, widthCenter));
 
 		boolean isHighDetail = hasJoint && zoomLevel >= VERY_HIGH_MAGNIFICATION && effectsOn;
 
 		if (!isHighDetail)
 			return segment;
 
-		joint.setRadius(getJointRadius(organ.getThickness()));
+		joint.setRadius(getJointRadius(snapshot.getThickness()));
 
 		joint.getTransforms().clear();
-		joint.getTransforms().add(moveToStartPoint());
-		joint.getTransforms().add(new Translate(organ.getLength(), 0));
-		joint.getTransforms().add(new Rotate(organ.getAbsoluteAngle(), -organ.getLength(), 0));
+		joint.getTransforms().add(moveToStartPoint(snapshot));
+		joint.getTransforms().add(new Translate(snapshot.getLength(), 0));
+		joint.getTransforms().add(new Rotate(snapshot.getAbsoluteAngle(), -snapshot.getLength(), 0));
 
 		return Path.union(segment, joint);
 	}
@@ -174,7 +185,7 @@ public class OrganView implements ItemView {
 		}
 	}
 
-	private void addMotionBlurEffect(Shape organShape, double zoomLevel, boolean effectsOn) {
+	private void addMotionBlurEffect(Shape organShape, OrganSnapshot snapshot, double zoomLevel, boolean effectsOn) {
 		organShape.setEffect(null);
 
 		if (!effectsOn)
@@ -183,7 +194,7 @@ public class OrganView implements ItemView {
 		if (zoomLevel < MOTION_BLUR_DISTANCE)
 			return;
 
-		Vector movement = calculateMovement();
+		Vector movement = calculateMovement(snapshot);
 
 		if (movement.equals(Vector.ZERO))
 			return;
@@ -199,10 +210,10 @@ public class OrganView implements ItemView {
 		}
 	}
 
-	private Vector calculateMovement() {
-		Segment currentOrganPosition = organ.toSegment();
+	private Vector calculateMovement(OrganSnapshot snapshot) {
+		Segment currentOrganPosition = snapshot.toSegment();
 
-		if (!areDistant(currentOrganPosition, previousOrganPosition))
+		if (previousOrganPosition == null || !areDistant(currentOrganPosition, previousOrganPosition))
 			return Vector.ZERO;
 
 		return currentOrganPosition.getDistanceFrom(previousOrganPosition);
@@ -226,52 +237,52 @@ public class OrganView implements ItemView {
 		return Math.abs(point2.x - point1.x) > MOTION_BLUR_THRESHOLD || Math.abs(point2.y - point1.y) > MOTION_BLUR_THRESHOLD;
 	}
 
-	private Translate moveToStartPoint() {
-		Vector startPoint = organ.getStartPoint();
+	private Translate moveToStartPoint(OrganSnapshot snapshot) {
+		Vector startPoint = snapshot.getStartPoint();
 		return new Translate(startPoint.x, startPoint.y);
 	}
 
-	private double getAlpha(double zoomLevel) {
-		double distanceAlpha = getDistanceAlpha(zoomLevel);
-		double energyAlpha = getEnergyAlpha();
+	private double getAlpha(OrganSnapshot snapshot, NarjilloSnapshot narjilloSnapshot, double zoomLevel) {
+		double distanceAlpha = getDistanceAlpha(snapshot, zoomLevel);
+		double energyAlpha = getEnergyAlpha(narjilloSnapshot);
 		return Math.min(energyAlpha, distanceAlpha);
 	}
 
-	private double getDistanceAlpha(double zoomLevel) {
+	private double getDistanceAlpha(OrganSnapshot snapshot, double zoomLevel) {
 		if (zoomLevel <= VERY_LOW_MAGNIFICATION)
 			return 0; // nothing visible
 
 		if (zoomLevel > VERY_LOW_MAGNIFICATION && zoomLevel <= LOW_MAGNIFICATION) {
-			if (isSmall())
+			if (isSmall(snapshot))
 				return 0;
 			return (zoomLevel - VERY_LOW_MAGNIFICATION) / (LOW_MAGNIFICATION - VERY_LOW_MAGNIFICATION);
 		}
 
 		if (zoomLevel > LOW_MAGNIFICATION && zoomLevel <= MEDIUM_MAGNIFICATION) {
-			if (isVerySmall())
+			if (isVerySmall(snapshot))
 				return 0;
-			if (isSmall())
+			if (isSmall(snapshot))
 				return (zoomLevel - LOW_MAGNIFICATION) / (MEDIUM_MAGNIFICATION - LOW_MAGNIFICATION);
 		}
 
 		if (zoomLevel > MEDIUM_MAGNIFICATION && zoomLevel <= HIGH_MAGNIFICATION) {
-			if (isVerySmall())
+			if (isVerySmall(snapshot))
 				return (zoomLevel - MEDIUM_MAGNIFICATION) / (HIGH_MAGNIFICATION - MEDIUM_MAGNIFICATION);
 		}
 
 		return 1;
 	}
 
-	private boolean isSmall() {
-		return organ.getLength() + getOverlap() * 2 < 100 || organ.getThickness() < 40;
+	private boolean isSmall(OrganSnapshot snapshot) {
+		return snapshot.getLength() + getOverlap(snapshot.getThickness()) * 2 < 100 || snapshot.getThickness() < 40;
 	}
 
-	private boolean isVerySmall() {
-		return organ.getLength() + getOverlap() * 2 < 50 || organ.getThickness() < 20;
+	private boolean isVerySmall(OrganSnapshot snapshot) {
+		return snapshot.getLength() + getOverlap(snapshot.getThickness()) * 2 < 50 || snapshot.getThickness() < 20;
 	}
 
-	private double getEnergyAlpha() {
-		double result = getNarjillo().getEnergy().getValue() / (getNarjillo().getEnergy().getMaximumValue() / 10);
+	private double getEnergyAlpha(NarjilloSnapshot snapshot) {
+		double result = snapshot.getEnergy() / (snapshot.getMaximumEnergy() / 10);
 		return Math.min(1, result);
 	}
 
@@ -7,11 +7,23 @@ import java.util.Map;
 
 import org.nusco.narjillos.core.configuration.Configuration;
 
+/**
+ * The amounts of the elements in an ecosystem. The amounts are stored in an
+ * array indexed by the elements' ordinals. (Element ZERO has a slot, but its
+ * amount is always zero).
+ * <p>
+ * An atmosphere is not thread-safe. Only the thread that ticks the ecosystem
+ * should use it. The parallel parts of the tick read a copy of the densities
+ * (see getDensities()), and the ecosystem applies their conversions
+ * afterwards.
+ */
 public class Atmosphere {
 
+	private static final Element[] ELEMENTS = Element.values();
+
 	private final double saturationElementLevels;
 
-	private final Map<Element, Double> levels = new LinkedHashMap<>();
+	private final double[] levels = new double[ELEMENTS.length];
 
 	private final int catalystLevel;
 
@@ -21,44 +33,103 @@ public class Atmosphere {
 
 	public Atmosphere(double initialElementLevels, int catalystLevel) {
 		this.saturationElementLevels = initialElementLevels * 3;
-		levels.put(OXYGEN, initialElementLevels);
-		levels.put(HYDROGEN, initialElementLevels);
-		levels.put(NITROGEN, initialElementLevels);
+		levels[OXYGEN.ordinal()] = initialElementLevels;
+		levels[HYDROGEN.ordinal()] = initialElementLevels;
+		levels[NITROGEN.ordinal()] = initialElementLevels;
 		this.catalystLevel = catalystLevel;
 	}
 
-	public synchronized double getAmountOf(Element element) {
-		if (element == ZERO)
-			return 0;
+	public Atmosphere(double saturationElementLevels, Map<Element, Double> levels, int catalystLevel) {
+		this.saturationElementLevels = saturationElementLevels;
+		levels.forEach((element, level) -> {
+			if (element != ZERO)
+				this.levels[element.ordinal()] = level;
+		});
+		this.catalystLevel = catalystLevel;
+	}
 
-		return levels.get(element);
+	public double getAmountOf(Element element) {
+		return levels[element.ordinal()];
+	}
+
+	/**
+	 * The amounts of all elements except ZERO, in the order of the elements.
+	 */
+	public Map<Element, Double> getAmounts() {
+		Map<Element, Double> result = new LinkedHashMap<>();
+		for (Element element : ELEMENTS) {
+			if (element != ZERO)
+				result.put(element, levels[element.ordinal()]);
+		}
+		return result;
+	}
+
+	public double getSaturationElementLevels() {
+		return saturationElementLevels;
 	}
 
 	public int getCatalystLevel() {
 		return catalystLevel;
 	}
 
-	public synchronized void convert(Element fromElement, Element toElement) {
+	public void convert(Element fromElement, Element toElement) {
 		if (fromElement == ZERO || toElement == ZERO)
 			return;
 
-		double fromLevel = levels.get(fromElement);
+		double fromLevel = levels[fromElement.ordinal()];
 		if (fromLevel > 0) {
-			Double toLevel = levels.get(toElement);
-			levels.put(fromElement, fromLevel - 1);
-			levels.put(toElement, toLevel + 1);
+			levels[fromElement.ordinal()] = fromLevel - 1;
+			levels[toElement.ordinal()] += 1;
 		}
 	}
 
-	public synchronized double getDensityOf(Element element) {
+	/**
+	 * Applies a batch of conversions at once - but only if the result is
+	 * exactly the same as calling convert() for each conversion, in any order.
+	 * That is the case when no element can run out during the batch, and all
+	 * amounts are whole numbers (so that adding and removing them is exact).
+	 * <p>
+	 * Returns false, and leaves the atmosphere alone, if that's not the case.
+	 * Then it's up to the caller to convert the elements one by one, in the
+	 * right order.
+	 */
+	public boolean convertAll(Conversions conversions) {
+		for (Element element : ELEMENTS) {
+			double level = levels[element.ordinal()];
+			if (level != Math.rint(level))
+				return false;
+
+			// Conversions into the element can only raise its level, so this
+			// is the lowest level it can have before its last conversion
+			int outgoing = conversions.getOutgoing(element);
+			if (outgoing > 0 && level - (outgoing - 1) <= 0)
+				return false;
+		}
+
+		for (Element element : ELEMENTS)
+			levels[element.ordinal()] += conversions.getIncoming(element) - conversions.getOutgoing(element);
+		return true;
+	}
+
+	public double getDensityOf(Element element) {
 		if (element == ZERO)
 			return 0.0;
 
-		return levels.get(element) / saturationElementLevels;
+		return levels[element.ordinal()] / saturationElementLevels;
+	}
+
+	/**
+	 * The densities of all elements, indexed by their ordinals.
+	 */
+	public double[] getDensities() {
+		double[] result = new double[ELEMENTS.length];
+		for (Element element : ELEMENTS)
+			result[element.ordinal()] = getDensityOf(element);
+		return result;
 	}
 
 	@Override
-	public synchronized String toString() {
-		return "O: " + levels.get(OXYGEN) + ", H: " + levels.get(HYDROGEN) + ", N: " + levels.get(NITROGEN) + ", X: " + getCatalystLevel();
+	public String toString() {
+		return "O: " + getAmountOf(OXYGEN) + ", H: " + getAmountOf(HYDROGEN) + ", N: " + getAmountOf(NITROGEN) + ", X: " + getCatalystLevel();
 	}
 }
@@ -0,0 +1,47 @@
+package org.nusco.narjillos.core.chemistry;
+
+/**
+ * Counts conversions from one element to another, to apply them to an
+ * Atmosphere in one go (see Atmosphere.convertAll()). Conversions from or to
+ * element ZERO don't count, because they don't change the atmosphere.
+ * <p>
+ * Counts can be added together, and the order of the additions doesn't
+ * matter. So you can count conversions in parallel, and then merge the
+ * counts.
+ */
+public class Conversions {
+
+	private static final int NUMBER_OF_ELEMENTS = Element.values().length;
+
+	private final int[] counts = new int[NUMBER_OF_ELEMENTS * NUMBER_OF_ELEMENTS];
+
+	public void add(Element fromElement, Element toElement) {
+		if (fromElement == Element.ZERO || toElement == Element.ZERO)
+			return;
+
+		counts[fromElement.ordinal() * NUMBER_OF_ELEMENTS + toElement.ordinal()]++;
+	}
+
+	public void addAll(Conversions other) {
+		for (int i = 0; i < counts.length; i++)
+			counts[i] += other.counts[i];
+	}
+
+	public int get(Element fromElement, Element toElement) {
+		return counts[fromElement.ordinal() * NUMBER_OF_ELEMENTS + toElement.ordinal()];
+	}
+
+	int getOutgoing(Element element) {
+		int result = 0;
+		for (int to = 0; to < NUMBER_OF_ELEMENTS; to++)
+			result += counts[element.ordinal() * NUMBER_OF_ELEMENTS + to];
+		return result;
+	}
+
+	int getIncoming(Element element) {
+		int result = 0;
+		for (int from = 0; from < NUMBER_OF_ELEMENTS; from++)
+			result += counts[from * NUMBER_OF_ELEMENTS + element.ordinal()];
+		return result;
+	}
+}
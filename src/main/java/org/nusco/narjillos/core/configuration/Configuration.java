@@ -59,6 +59,10 @@ public class Configuration {
 		}
 	}
 
+	private static String getString(String configSection, String configKey) {
+		return get(configSection, configKey).toString();
+	}
+
 	private static Object get(String configSection, String configKey) {
 		Map<String, Object> section = data.get(configSection);
 		if (section == null) {
@@ -153,6 +157,10 @@ public class Configuration {
 
 	public static final int ECOSYSTEM_CATALYST_LEVEL = getInt("ecosystem", "catalyst_level");
 
+	public static final String ECOSYSTEM_EXECUTION_STRATEGY = getString("ecosystem", "execution_strategy");
+
+	public static final int ECOSYSTEM_TILES_PER_EDGE = getInt("ecosystem", "tiles_per_edge");
+
 	// experiment
 	public static final int EXPERIMENT_SAMPLE_INTERVAL_TICKS = getInt("experiment", "sample_interval_ticks");
 
@@ -0,0 +1,228 @@
+package org.nusco.narjillos.core.geometry;
+
+/**
+ * A bounding volume hierarchy over a fixed number of segments: a binary tree
+ * of bounding boxes, where each leaf contains a segment, and each node's box
+ * contains its children's boxes. It tells whether a point (or the segments
+ * of another hierarchy) come close to the segments, without checking each
+ * segment.
+ * <p>
+ * The shape of the tree never changes. When the segments move, set them
+ * again and refit() the tree to update the boxes. The tree splits the
+ * segments in the order they're given, so it works best if neighboring
+ * segments are close to each other - like the organs of a body, that come
+ * one limb after the other.
+ * <p>
+ * The distances are the exact distances between points and segments, and
+ * between pairs of segments.
+ */
+public class BoundingVolumeHierarchy {
+
+	private static final int NO_NODE = -1;
+
+	private final Segment[] segments;
+
+	// The nodes are stored in arrays, with the root at index 0. Children
+	// always come after their parents. Leaves have no children, and point
+	// to their segment.
+	private final int[] leftChildren;
+
+	private final int[] rightChildren;
+
+	private final int[] nodeSegments;
+
+	private final double[] lefts;
+
+	private final double[] rights;
+
+	private final double[] bottoms;
+
+	private final double[] tops;
+
+	private int numberOfNodes = 0;
+
+	public BoundingVolumeHierarchy(int numberOfSegments) {
+		if (numberOfSegments < 1)
+			throw new IllegalArgumentException("A bounding volume hierarchy needs at least one segment");
+
+		segments = new Segment[numberOfSegments];
+
+		int maxNumberOfNodes = numberOfSegments * 2 - 1;
+		leftChildren = new int[maxNumberOfNodes];
+		rightChildren = new int[maxNumberOfNodes];
+		nodeSegments = new int[maxNumberOfNodes];
+		lefts = new double[maxNumberOfNodes];
+		rights = new double[maxNumberOfNodes];
+		bottoms = new double[maxNumberOfNodes];
+		tops = new double[maxNumberOfNodes];
+
+		build(0, numberOfSegments);
+	}
+
+	public int getNumberOfSegments() {
+		return segments.length;
+	}
+
+	public void setSegment(int index, Segment segment) {
+		segments[index] = segment;
+	}
+
+	/**
+	 * Updates the boxes after the segments changed. Set all the segments
+	 * before you call this for the first time.
+	 */
+	public void refit() {
+		// Children come after their parents, so going backwards
+		// updates the children first
+		for (int node = numberOfNodes - 1; node >= 0; node--) {
+			if (isLeaf(node)) {
+				// Same as the segment's bounding box, but without
+				// allocating the box and its end point
+				Segment segment = segments[nodeSegments[node]];
+				Vector start = segment.getStartPoint();
+				Vector vector = segment.getVector();
+				double endX = start.x + vector.x;
+				double endY = start.y + vector.y;
+				lefts[node] = Math.min(start.x, endX);
+				rights[node] = Math.max(start.x, endX);
+				bottoms[node] = Math.min(start.y, endY);
+				tops[node] = Math.max(start.y, endY);
+			} else {
+				int left = leftChildren[node];
+				int right = rightChildren[node];
+				lefts[node] = Math.min(lefts[left], lefts[right]);
+				rights[node] = Math.max(rights[left], rights[right]);
+				bottoms[node] = Math.min(bottoms[left], bottoms[right]);
+				tops[node] = Math.max(tops[left], tops[right]);
+			}
+		}
+	}
+
+	/**
+	 * The box that contains all the segments.
+	 */
+	public BoundingBox getBoundingBox() {
+		return new BoundingBox(lefts[0], rights[0], bottoms[0], tops[0]);
+	}
+
+	/**
+	 * Returns true if any segment is at the given distance from the point, or
+	 * closer.
+	 */
+	public boolean isCloseTo(Vector point, double distance) {
+		return isCloseTo(0, point.x, point.y, distance * distance);
+	}
+
+	/**
+	 * Returns true if any segment is at the given distance from any segment
+	 * of the other hierarchy, or closer.
+	 */
+	public boolean isCloseTo(BoundingVolumeHierarchy other, double distance) {
+		return isCloseTo(0, other, 0, distance * distance);
+	}
+
+	private int build(int firstSegment, int endSegment) {
+		int node = numberOfNodes++;
+
+		if (endSegment - firstSegment == 1) {
+			leftChildren[node] = NO_NODE;
+			rightChildren[node] = NO_NODE;
+			nodeSegments[node] = firstSegment;
+			return node;
+		}
+
+		int middleSegment = (firstSegment + endSegment) >>> 1;
+		nodeSegments[node] = NO_NODE;
+		leftChildren[node] = build(firstSegment, middleSegment);
+		rightChildren[node] = build(middleSegment, endSegment);
+		return node;
+	}
+
+	private boolean isLeaf(int node) {
+		return leftChildren[node] == NO_NODE;
+	}
+
+	private boolean isCloseTo(int node, double x, double y, double distanceSquared) {
+		double gapX = Math.max(0, Math.max(lefts[node] - x, x - rights[node]));
+		double gapY = Math.max(0, Math.max(bottoms[node] - y, y - tops[node]));
+		if (gapX * gapX + gapY * gapY > distanceSquared)
+			return false;
+
+		if (isLeaf(node))
+			return getDistanceSquared(segments[nodeSegments[node]], x, y) <= distanceSquared;
+
+		return isCloseTo(leftChildren[node], x, y, distanceSquared) || isCloseTo(rightChildren[node], x, y, distanceSquared);
+	}
+
+	private boolean isCloseTo(int node, BoundingVolumeHierarchy other, int otherNode, double distanceSquared) {
+		double gapX = Math.max(0, Math.max(lefts[node] - other.rights[otherNode], other.lefts[otherNode] - rights[node]));
+		double gapY = Math.max(0, Math.max(bottoms[node] - other.tops[otherNode], other.bottoms[otherNode] - tops[node]));
+		if (gapX * gapX + gapY * gapY > distanceSquared)
+			return false;
+
+		if (isLeaf(node) && other.isLeaf(otherNode))
+			return getDistanceSquared(segments[nodeSegments[node]], other.segments[other.nodeSegments[otherNode]]) <= distanceSquared;
+
+		// Go down the bigger box first, so that both trees shrink at a similar pace
+		if (other.isLeaf(otherNode) || (!isLeaf(node) && getArea(node) >= other.getArea(otherNode))) {
+			return isCloseTo(leftChildren[node], other, otherNode, distanceSquared)
+				|| isCloseTo(rightChildren[node], other, otherNode, distanceSquared);
+		}
+
+		return isCloseTo(node, other, other.leftChildren[otherNode], distanceSquared)
+			|| isCloseTo(node, other, other.rightChildren[otherNode], distanceSquared);
+	}
+
+	private double getArea(int node) {
+		return (rights[node] - lefts[node]) * (tops[node] - bottoms[node]);
+	}
+
+	private static double getDistanceSquared(Segment segment, double x, double y) {
+		Vector start = segment.getStartPoint();
+		Vector vector = segment.getVector();
+		return getDistanceSquared(start.x, start.y, vector.x, vector.y, x, y);
+	}
+
+	private static double getDistanceSquared(double startX, double startY, double vectorX, double vectorY, double x, double y) {
+		double lengthSquared = vectorX * vectorX + vectorY * vectorY;
+		double t = 0;
+		if (lengthSquared > 0)
+			t = Math.max(0, Math.min(1, ((x - startX) * vectorX + (y - startY) * vectorY) / lengthSquared));
+
+		double distanceX = startX + vectorX * t - x;
+		double distanceY = startY + vectorY * t - y;
+		return distanceX * distanceX + distanceY * distanceY;
+	}
+
+	private static double getDistanceSquared(Segment segment1, Segment segment2) {
+		Vector start1 = segment1.getStartPoint();
+		Vector vector1 = segment1.getVector();
+		Vector start2 = segment2.getStartPoint();
+		Vector vector2 = segment2.getVector();
+
+		if (intersect(start1.x, start1.y, vector1.x, vector1.y, start2.x, start2.y, vector2.x, vector2.y))
+			return 0;
+
+		// If two segments don't cross, then one of the four
+		// end points is the closest point
+		double result = getDistanceSquared(start1.x, start1.y, vector1.x, vector1.y, start2.x, start2.y);
+		result = Math.min(result, getDistanceSquared(start1.x, start1.y, vector1.x, vector1.y, start2.x + vector2.x, start2.y + vector2.y));
+		result = Math.min(result, getDistanceSquared(start2.x, start2.y, vector2.x, vector2.y, start1.x, start1.y));
+		return Math.min(result, getDistanceSquared(start2.x, start2.y, vector2.x, vector2.y, start1.x + vector1.x, start1.y + vector1.y));
+	}
+
+	// True if the segments cross each other. (If they just touch, then one
+	// of the end points is at zero distance from the other segment anyway).
+	private static boolean intersect(double startX1, double startY1, double vectorX1, double vectorY1,
+		double startX2, double startY2, double vectorX2, double vectorY2) {
+		double side1 = cross(vectorX1, vectorY1, startX2 - startX1, startY2 - startY1);
+		double side2 = cross(vectorX1, vectorY1, startX2 + vectorX2 - startX1, startY2 + vectorY2 - startY1);
+		double side3 = cross(vectorX2, vectorY2, startX1 - startX2, startY1 - startY2);
+		double side4 = cross(vectorX2, vectorY2, startX1 + vectorX1 - startX2, startY1 + vectorY1 - startY2);
+		return side1 * side2 < 0 && side3 * side4 < 0;
+	}
+
+	private static double cross(double x1, double y1, double x2, double y2) {
+		return x1 * y2 - y1 * x2;
+	}
+}
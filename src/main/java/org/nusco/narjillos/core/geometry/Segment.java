@@ -29,25 +29,40 @@ public class Segment implements Bounded {
 	}
 
 	public double getMinimumDistanceFromPointSquared(Vector point) {
-		if (vector.isZero())
-			return startPoint.getDistanceSquaredFrom(point);
+		return getMinimumDistanceFromPointSquared(startPoint.x, startPoint.y, vector.x, vector.y, point.x, point.y);
+	}
+
+	/**
+	 * Same as the instance method, but on raw coordinates. It doesn't allocate
+	 * Vectors, so it's good for tight loops over arrays of points.
+	 */
+	public static double getMinimumDistanceFromPointSquared(double startX, double startY, double vectorX, double vectorY, double pointX, double pointY) {
+		if (vectorX == 0 && vectorY == 0)
+			return getDistanceSquared(startX, startY, pointX, pointY);
 
-		double lengthSquared = vector.getLengthSquared();
+		double lengthSquared = vectorX * vectorX + vectorY * vectorY;
 
 		if (lengthSquared < 0.00001)
-			return startPoint.getDistanceSquaredFrom(point);
+			return getDistanceSquared(startX, startY, pointX, pointY);
 
 		double t =
-			((point.x - startPoint.x) * (vector.x - startPoint.x) + (point.y - startPoint.y) * (vector.y - startPoint.y)) / lengthSquared;
+			((pointX - startX) * (vectorX - startX) + (pointY - startY) * (vectorY - startY)) / lengthSquared;
 
 		if (t < 0)
-			return startPoint.getDistanceSquaredFrom(point);
+			return getDistanceSquared(startX, startY, pointX, pointY);
 
 		if (t > 1)
-			return (getEndPoint()).getDistanceSquaredFrom(point);
+			return getDistanceSquared(startX + vectorX, startY + vectorY, pointX, pointY);
+
+		double projectionX = startX + (vectorX - startX) * t;
+		double projectionY = startY + (vectorY - startY) * t;
+		return getDistanceSquared(projectionX, projectionY, pointX, pointY);
+	}
 
-		Vector projection = startPoint.plus(vector.minus(startPoint).by(t));
-		return projection.minus(point).getLengthSquared();
+	private static double getDistanceSquared(double x1, double y1, double x2, double y2) {
+		double x = x1 - x2;
+		double y = y1 - y2;
+		return x * x + y * y;
 	}
 
 	public Vector getDistanceFrom(Segment other) {
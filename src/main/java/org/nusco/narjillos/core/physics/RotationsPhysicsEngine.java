@@ -1,8 +1,5 @@
 package org.nusco.narjillos.core.physics;
 
-import java.util.LinkedList;
-import java.util.List;
-
 import org.nusco.narjillos.core.geometry.Angle;
 import org.nusco.narjillos.core.geometry.Segment;
 import org.nusco.narjillos.core.geometry.Vector;
@@ -33,35 +30,61 @@ import org.nusco.narjillos.core.configuration.Configuration;
  * = total_angular_momentum / (mass * radius^2 / 4)
  * <p>
  * rotation_energy = moment_of_inertia * angular_velocity^2 / 2;
+ * <p>
+ * The engine keeps running sums instead of remembering each movement, so it
+ * doesn't allocate anything. Call reset() to reuse it for another movement of
+ * the body.
  */
 public class RotationsPhysicsEngine {
 
-	private final double bodyMass;
+	private double bodyMass;
+
+	private double bodyRadius;
 
-	private final double bodyRadius;
+	private double centerOfMassX;
 
-	private final Vector centerOfMass;
+	private double centerOfMassY;
 
-	private final List<Double> angularMomenta = new LinkedList<>();
+	private double totalAngularMomentum;
 
-	private double rotationEnergy = 0;
+	private double rotationEnergy;
 
 	public RotationsPhysicsEngine(double bodyMass, double bodyRadius, Vector centerOfMass) {
+		reset(bodyMass, bodyRadius, centerOfMass);
+	}
+
+	/**
+	 * Forgets all the registered movements, and starts over with a body in a
+	 * different state.
+	 */
+	public void reset(double bodyMass, double bodyRadius, Vector centerOfMass) {
 		this.bodyMass = bodyMass;
 		this.bodyRadius = bodyRadius;
-		this.centerOfMass = centerOfMass;
+		this.centerOfMassX = centerOfMass.x;
+		this.centerOfMassY = centerOfMass.y;
+		totalAngularMomentum = 0;
+		rotationEnergy = 0;
+	}
+
+	/**
+	 * The radius of the body only matters for the final rotation, so you can
+	 * set it after you register the movements - for example, if you calculate
+	 * it while you go through the same organs.
+	 */
+	public void setBodyRadius(double bodyRadius) {
+		this.bodyRadius = bodyRadius;
 	}
 
 	public void registerMovement(double initialAngle, double finalAngle, Segment finalPositionInSpace, double mass) {
 		double angularVelocity = calculateAngularVelocity(initialAngle, finalAngle);
 		double momentOfInertia = calculateMomentOfInertia(finalPositionInSpace, mass);
 		double angularMomentum = momentOfInertia * angularVelocity;
-		angularMomenta.add(angularMomentum);
+		totalAngularMomentum += angularMomentum;
 		rotationEnergy += calculateRotationEnergy(momentOfInertia, angularVelocity);
 	}
 
 	public double getRotation() {
-		return -getTotalAngularMomentum() / (bodyMass * bodyRadius * bodyRadius / 4);
+		return -totalAngularMomentum / (bodyMass * bodyRadius * bodyRadius / 4);
 	}
 
 	public double getEnergy() {
@@ -74,18 +97,14 @@ public class RotationsPhysicsEngine {
 
 	private double calculateMomentOfInertia(Segment positionInSpace, double mass) {
 		double length = positionInSpace.getVector().getLength();
-		double distance = positionInSpace.getStartPoint().minus(centerOfMass).getLength();
+		Vector startPoint = positionInSpace.getStartPoint();
+		double distanceX = startPoint.x - centerOfMassX;
+		double distanceY = startPoint.y - centerOfMassY;
+		double distance = Math.sqrt(distanceX * distanceX + distanceY * distanceY);
 		return mass * length * length * 16 / 48 + distance * distance;
 	}
 
 	private double calculateRotationEnergy(double momentOfInertia, double angularVelocity) {
 		return momentOfInertia * angularVelocity * angularVelocity / 2;
 	}
-
-	private double getTotalAngularMomentum() {
-		double result = 0;
-		for (double angularMomentum : angularMomenta)
-			result += angularMomentum;
-		return result;
-	}
 }
@@ -1,8 +1,6 @@
 package org.nusco.narjillos.core.physics;
 
-import java.util.LinkedList;
-import java.util.List;
-
+import org.nusco.narjillos.core.geometry.FastMath;
 import org.nusco.narjillos.core.geometry.Segment;
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.geometry.ZeroVectorAngleException;
@@ -20,28 +18,51 @@ import org.nusco.narjillos.core.configuration.Configuration;
  * total_linear_velocity = total_linear_momentum / mass (in [points / tick])
  * <p>
  * translation_energy = mass * linear_velocity^2 / 2;
+ * <p>
+ * Like RotationsPhysicsEngine, this engine keeps running sums and doesn't
+ * allocate anything until you ask for the translation. Call reset() to reuse
+ * it.
  */
 public class TranslationsPhysicsEngine {
 
-	private final double bodyMass;
+	private double bodyMass;
+
+	private double totalLinearMomentumX;
+
+	private double totalLinearMomentumY;
 
-	private final List<Vector> linearMomenta = new LinkedList<>();
+	private double translationEnergy;
 
-	private double translationEnergy = 0;
+	// The linear velocity of the last registered movement.
+	private double linearVelocityX;
+
+	private double linearVelocityY;
 
 	public TranslationsPhysicsEngine(double bodyMass) {
+		reset(bodyMass);
+	}
+
+	/**
+	 * Forgets all the registered movements, and starts over with a body of
+	 * the given mass.
+	 */
+	public void reset(double bodyMass) {
 		this.bodyMass = bodyMass;
+		totalLinearMomentumX = 0;
+		totalLinearMomentumY = 0;
+		translationEnergy = 0;
 	}
 
 	public void registerMovement(Segment initialPositionInSpace, Segment finalPositionInSpace, double mass) {
-		Vector linearVelocity = finalPositionInSpace.getDistanceFrom(initialPositionInSpace);
-		Vector linearMomentum = linearVelocity.by(mass);
-		linearMomenta.add(linearMomentum);
-		translationEnergy += calculateTranslationEnergy(mass, linearVelocity);
+		calculateLinearVelocity(initialPositionInSpace, finalPositionInSpace);
+		totalLinearMomentumX += linearVelocityX * mass;
+		totalLinearMomentumY += linearVelocityY * mass;
+		translationEnergy += calculateTranslationEnergy(mass);
 	}
 
 	public Vector getTranslation() {
-		Vector result = getTotalLinearMomentum().by(-1.0 / bodyMass);
+		double scale = -1.0 / bodyMass;
+		Vector result = Vector.cartesian(totalLinearMomentumX * scale, totalLinearMomentumY * scale);
 		double length = result.getLength();
 
 		if (length == 0)
@@ -58,15 +79,41 @@ public class TranslationsPhysicsEngine {
 		return translationEnergy * Configuration.PHYSICS_ENERGY_EXPENSE_PER_JOULE / 1_000_000_000L;
 	}
 
-	private double calculateTranslationEnergy(double mass, Vector linearVelocity) {
-		double linearVelocityLength = linearVelocity.getLength();
-		return mass * linearVelocityLength * linearVelocityLength / 2;
+	// Same as finalPositionInSpace.getDistanceFrom(initialPositionInSpace),
+	// down to the last bit, but without the intermediate Vectors.
+	private void calculateLinearVelocity(Segment initialPositionInSpace, Segment finalPositionInSpace) {
+		linearVelocityX = 0;
+		linearVelocityY = 0;
+
+		Vector initialVector = initialPositionInSpace.getVector();
+		if (initialVector.isZero())
+			return;
+
+		Vector initialStartPoint = initialPositionInSpace.getStartPoint();
+		Vector finalStartPoint = finalPositionInSpace.getStartPoint();
+		Vector finalVector = finalPositionInSpace.getVector();
+
+		double startPointMovementX = finalStartPoint.x - initialStartPoint.x;
+		double startPointMovementY = finalStartPoint.y - initialStartPoint.y;
+		double endPointMovementX = (finalStartPoint.x + finalVector.x) - (initialStartPoint.x + initialVector.x);
+		double endPointMovementY = (finalStartPoint.y + finalVector.y) - (initialStartPoint.y + initialVector.y);
+		double movementX = (startPointMovementX + endPointMovementX) * 0.5;
+		double movementY = (startPointMovementY + endPointMovementY) * 0.5;
+
+		if ((movementX == 0 && movementY == 0) || finalVector.isZero())
+			return;
+
+		// The component of the movement that is normal to the segment
+		double normalAngle = FastMath.atan(finalVector.y, finalVector.x) - 90;
+		double movementAngle = FastMath.atan(movementY, movementX);
+		double movementLength = Math.sqrt(movementX * movementX + movementY * movementY);
+		double normalLength = FastMath.cos(movementAngle - normalAngle) * movementLength;
+		linearVelocityX = FastMath.cos(normalAngle) * normalLength;
+		linearVelocityY = FastMath.sin(normalAngle) * normalLength;
 	}
 
-	private Vector getTotalLinearMomentum() {
-		Vector result = Vector.ZERO;
-		for (Vector linearMomentum : linearMomenta)
-			result = result.plus(linearMomentum);
-		return result;
+	private double calculateTranslationEnergy(double mass) {
+		double linearVelocityLength = Math.sqrt(linearVelocityX * linearVelocityX + linearVelocityY * linearVelocityY);
+		return mass * linearVelocityLength * linearVelocityLength / 2;
 	}
 }
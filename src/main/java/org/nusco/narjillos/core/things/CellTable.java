@@ -0,0 +1,170 @@
+package org.nusco.narjillos.core.things;
+
+/**
+ * The cells of a Space's grid, in a flat open-addressing hash table keyed by
+ * packed grid coordinates (see HashedLocation.pack()). Each cell stores its
+ * things in a dense array, in insertion order.
+ * <p>
+ * Cells are never removed once created, so their ids are stable and clients
+ * can hold on to them. Lookups don't allocate.
+ */
+class CellTable {
+
+	static final int NO_CELL = -1;
+
+	// (0, 0) is not a valid grid location, so it can mark free slots.
+	private static final long FREE = 0;
+
+	private static final int INITIAL_CELL_CAPACITY = 4;
+
+	private long[] slotKeys = new long[64];
+
+	private int[] slotCells = new int[64];
+
+	private long[] cellKeys = new long[32];
+
+	private Thing[][] cellContents = new Thing[32][];
+
+	private int[] cellSizes = new int[32];
+
+	private int numberOfCells = 0;
+
+	// The extent of the grid, in grid coordinates.
+	private long minLx = Long.MAX_VALUE;
+
+	private long maxLx = Long.MIN_VALUE;
+
+	private long minLy = Long.MAX_VALUE;
+
+	private long maxLy = Long.MIN_VALUE;
+
+	int find(long lx, long ly) {
+		long key = HashedLocation.pack(lx, ly);
+		int mask = slotKeys.length - 1;
+		for (int slot = hash(key) & mask; slotKeys[slot] != FREE; slot = (slot + 1) & mask) {
+			if (slotKeys[slot] == key)
+				return slotCells[slot];
+		}
+		return NO_CELL;
+	}
+
+	int findOrCreate(long lx, long ly) {
+		int result = find(lx, ly);
+		if (result != NO_CELL)
+			return result;
+
+		if ((numberOfCells + 1) * 2 > slotKeys.length)
+			rehash(slotKeys.length * 2);
+
+		if (numberOfCells == cellKeys.length)
+			growCells();
+
+		result = numberOfCells++;
+		long key = HashedLocation.pack(lx, ly);
+		cellKeys[result] = key;
+		cellContents[result] = new Thing[INITIAL_CELL_CAPACITY];
+		insertSlot(key, result);
+
+		minLx = Math.min(minLx, lx);
+		maxLx = Math.max(maxLx, lx);
+		minLy = Math.min(minLy, ly);
+		maxLy = Math.max(maxLy, ly);
+
+		return result;
+	}
+
+	void add(int cell, Thing thing) {
+		Thing[] contents = cellContents[cell];
+		int size = cellSizes[cell];
+		if (size == contents.length) {
+			Thing[] grownContents = new Thing[size * 2];
+			System.arraycopy(contents, 0, grownContents, 0, size);
+			cellContents[cell] = contents = grownContents;
+		}
+		contents[size] = thing;
+		cellSizes[cell] = size + 1;
+	}
+
+	void remove(int cell, Thing thing) {
+		// Shift the remaining things to keep them in insertion order.
+		Thing[] contents = cellContents[cell];
+		int size = cellSizes[cell];
+		for (int i = 0; i < size; i++) {
+			if (contents[i] == thing) {
+				System.arraycopy(contents, i + 1, contents, i, size - i - 1);
+				contents[size - 1] = null;
+				cellSizes[cell] = size - 1;
+				return;
+			}
+		}
+	}
+
+	int size(int cell) {
+		return cellSizes[cell];
+	}
+
+	Thing get(int cell, int index) {
+		return cellContents[cell][index];
+	}
+
+	long getKey(int cell) {
+		return cellKeys[cell];
+	}
+
+	int getNumberOfCells() {
+		return numberOfCells;
+	}
+
+	/**
+	 * The number of rings around a grid location that you need to visit to
+	 * be sure that you covered all the cells. (Ring 0 is the location itself,
+	 * ring 1 is the 8 cells around it, and so on).
+	 */
+	long getNumberOfRingsAround(long lx, long ly) {
+		if (numberOfCells == 0)
+			return 0;
+
+		long x = HashedLocation.toIndex(lx);
+		long y = HashedLocation.toIndex(ly);
+		long result = Math.max(x - HashedLocation.toIndex(minLx), HashedLocation.toIndex(maxLx) - x);
+		result = Math.max(result, Math.max(y - HashedLocation.toIndex(minLy), HashedLocation.toIndex(maxLy) - y));
+		return Math.max(result, 0) + 1;
+	}
+
+	private void insertSlot(long key, int cell) {
+		int mask = slotKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (slotKeys[slot] != FREE)
+			slot = (slot + 1) & mask;
+		slotKeys[slot] = key;
+		slotCells[slot] = cell;
+	}
+
+	private void rehash(int capacity) {
+		slotKeys = new long[capacity];
+		slotCells = new int[capacity];
+		for (int cell = 0; cell < numberOfCells; cell++)
+			insertSlot(cellKeys[cell], cell);
+	}
+
+	private void growCells() {
+		int capacity = cellKeys.length * 2;
+
+		long[] grownKeys = new long[capacity];
+		System.arraycopy(cellKeys, 0, grownKeys, 0, numberOfCells);
+		cellKeys = grownKeys;
+
+		Thing[][] grownContents = new Thing[capacity][];
+		System.arraycopy(cellContents, 0, grownContents, 0, numberOfCells);
+		cellContents = grownContents;
+
+		int[] grownSizes = new int[capacity];
+		System.arraycopy(cellSizes, 0, grownSizes, 0, numberOfCells);
+		cellSizes = grownSizes;
+	}
+
+	private static int hash(long key) {
+		long result = key * 0x9E3779B97F4A7C15L;
+		return (int) (result ^ (result >>> 32));
+	}
+}
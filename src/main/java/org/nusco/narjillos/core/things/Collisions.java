@@ -0,0 +1,75 @@
+package org.nusco.narjillos.core.things;
+
+/**
+ * The result of a batch collision query on Space: for each movement in the
+ * batch, the things that it collided with. Instead of a Set per movement,
+ * the results are packed into a single array of thing indexes, with one
+ * range of the array per movement.
+ */
+public class Collisions {
+
+	private final Thing[] things;
+
+	private final int[] movementStarts;
+
+	private int[] collidedThings = new int[16];
+
+	private int numberOfCollisions = 0;
+
+	private int numberOfMovements = 0;
+
+	Collisions(int numberOfMovements, Thing[] things) {
+		this.things = things;
+		this.movementStarts = new int[numberOfMovements + 1];
+	}
+
+	public int getNumberOfMovements() {
+		return numberOfMovements;
+	}
+
+	public int getNumberOfCollisions(int movement) {
+		return movementStarts[movement + 1] - movementStarts[movement];
+	}
+
+	public Thing getCollidedThing(int movement, int index) {
+		return things[collidedThings[movementStarts[movement] + index]];
+	}
+
+	/**
+	 * Puts together the results of a few batches into a single result. The
+	 * n-th movement of the result is the movement at index indexesInBatches[n]
+	 * in batch batchesOfMovements[n]. All the batches must come from the same
+	 * Space and type, with no changes to the Space in between.
+	 */
+	public static Collisions gather(Collisions[] batches, int[] batchesOfMovements, int[] indexesInBatches) {
+		Thing[] things = batches.length == 0 ? new Thing[0] : batches[0].things;
+		for (Collisions batch : batches) {
+			if (batch.things != things)
+				throw new IllegalArgumentException("Cannot gather collisions from different batches of things");
+		}
+
+		Collisions result = new Collisions(batchesOfMovements.length, things);
+		for (int movement = 0; movement < batchesOfMovements.length; movement++) {
+			Collisions batch = batches[batchesOfMovements[movement]];
+			int start = batch.movementStarts[indexesInBatches[movement]];
+			int end = batch.movementStarts[indexesInBatches[movement] + 1];
+			for (int i = start; i < end; i++)
+				result.add(batch.collidedThings[i]);
+			result.endMovement();
+		}
+		return result;
+	}
+
+	void add(int thing) {
+		if (numberOfCollisions == collidedThings.length) {
+			int[] grownCollidedThings = new int[numberOfCollisions * 2];
+			System.arraycopy(collidedThings, 0, grownCollidedThings, 0, numberOfCollisions);
+			collidedThings = grownCollidedThings;
+		}
+		collidedThings[numberOfCollisions++] = thing;
+	}
+
+	void endMovement() {
+		movementStarts[++numberOfMovements] = numberOfCollisions;
+	}
+}
@@ -0,0 +1,13 @@
+package org.nusco.narjillos.core.things;
+
+import org.nusco.narjillos.core.geometry.BoundingVolumeHierarchy;
+
+/**
+ * A Thing that is made of many segments, like the organs of a narjillo.
+ * Space can use the segments to check collisions more precisely than it
+ * could with the thing's bounding box alone.
+ */
+public interface CompositeThing extends Thing {
+
+	BoundingVolumeHierarchy getBoundingVolumeHierarchy();
+}
@@ -4,6 +4,9 @@ import java.util.Objects;
 /**
  * A location in Space. There is no grid location (0, *) or (*,0). Both coordinate
  * move from location -1 to location 1.
+ * <p>
+ * Space itself doesn't create HashedLocations on its hot paths: it works with
+ * the raw grid coordinates, packed into a long (see pack()).
  */
 class HashedLocation {
 
@@ -46,7 +49,17 @@ class HashedLocation {
 		return new HashedLocation(toGrid(x), toGrid(y));
 	}
 
-	static  long inc(long coordinate) {
+	static HashedLocation unpack(long key) {
+		return new HashedLocation(key >> 32, (int) key);
+	}
+
+	// Both coordinates must fit in an int. (With the current GRID_SIZE, that's
+	// way more space than a double can address precisely anyway).
+	static long pack(long lx, long ly) {
+		return (lx << 32) | (ly & 0xFFFFFFFFL);
+	}
+
+	static long inc(long coordinate) {
 		long result = coordinate + 1;
 		return result == 0 ? 1 : result;
 	}
@@ -56,7 +69,18 @@ class HashedLocation {
 		return result == 0 ? -1 : result;
 	}
 
-	private static long toGrid(double n) {
+	// Converts a grid coordinate to a gapless index, so that you can do
+	// arithmetic on it: location 1 is index 0, location -1 is index -1.
+	// Index n covers the points from n * GRID_SIZE to (n + 1) * GRID_SIZE.
+	static long toIndex(long coordinate) {
+		return coordinate > 0 ? coordinate - 1 : coordinate;
+	}
+
+	static long fromIndex(long index) {
+		return index >= 0 ? index + 1 : index;
+	}
+
+	static long toGrid(double n) {
 		if (n < 0)
 			return -toGrid(-n);
 		return (long) (n / GRID_SIZE) + 1;
@@ -26,22 +26,22 @@ public class LifeFormEnergy implements Energy {
 	}
 
 	@Override
-	public synchronized double getValue() {
+	public double getValue() {
 		return value;
 	}
 
 	@Override
-	public synchronized double getMaximumValue() {
+	public double getMaximumValue() {
 		return maxForAge;
 	}
 
 	@Override
-	public synchronized boolean isZero() {
+	public boolean isZero() {
 		return value <= 0;
 	}
 
 	@Override
-	public synchronized void tick(double additionalEnergy) {
+	public void tick(double additionalEnergy) {
 		if (maxForAge >= 0)
 			maxForAge -= decay;
 
@@ -49,7 +49,7 @@ public class LifeFormEnergy implements Energy {
 	}
 
 	@Override
-	public synchronized void increaseBy(double amount) {
+	public void increaseBy(double amount) {
 		if (isZero())
 			return; // once it's gone, it's gone
 
@@ -58,18 +58,18 @@ public class LifeFormEnergy implements Energy {
 	}
 
 	@Override
-	public synchronized void absorb(Energy other) {
+	public void absorb(Energy other) {
 		increaseBy(other.getValue());
 		other.dropToZero();
 	}
 
 	@Override
-	public synchronized void dropToZero() {
+	public void dropToZero() {
 		value = 0;
 	}
 
 	@Override
-	public synchronized void damage() {
+	public void damage() {
 		if (value < 10)
 			increaseBy(-1);
 		else
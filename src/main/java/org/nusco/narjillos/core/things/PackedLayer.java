@@ -0,0 +1,66 @@
+package org.nusco.narjillos.core.things;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A snapshot of a layer of Space, packed into flat arrays for batch queries.
+ * <p>
+ * The things are numbered in insertion order, and their coordinates are in
+ * xs and ys. The entries of the grid are grouped by cell id: the entries of
+ * a cell go from cellStarts[cell] to cellStarts[cell + 1], in the same order
+ * as the cell's things. Each entry carries a copy of its thing's coordinates,
+ * so a loop over a cell reads contiguous memory.
+ */
+class PackedLayer {
+
+	final Thing[] things;
+
+	final double[] xs;
+
+	final double[] ys;
+
+	final int[] cellStarts;
+
+	final int[] entryThings;
+
+	final double[] entryXs;
+
+	final double[] entryYs;
+
+	PackedLayer(Collection<Thing> layerThings, CellTable cells) {
+		things = layerThings.toArray(new Thing[layerThings.size()]);
+		xs = new double[things.length];
+		ys = new double[things.length];
+
+		Map<Thing, Integer> thingsToIndexes = new IdentityHashMap<>();
+		for (int i = 0; i < things.length; i++) {
+			xs[i] = things[i].getPosition().x;
+			ys[i] = things[i].getPosition().y;
+			thingsToIndexes.put(things[i], i);
+		}
+
+		int numberOfCells = cells.getNumberOfCells();
+		cellStarts = new int[numberOfCells + 1];
+		int numberOfEntries = 0;
+		for (int cell = 0; cell < numberOfCells; cell++) {
+			cellStarts[cell] = numberOfEntries;
+			numberOfEntries += cells.size(cell);
+		}
+		cellStarts[numberOfCells] = numberOfEntries;
+
+		entryThings = new int[numberOfEntries];
+		entryXs = new double[numberOfEntries];
+		entryYs = new double[numberOfEntries];
+		for (int cell = 0; cell < numberOfCells; cell++) {
+			for (int i = 0; i < cells.size(cell); i++) {
+				int entry = cellStarts[cell] + i;
+				int thing = thingsToIndexes.get(cells.get(cell, i));
+				entryThings[entry] = thing;
+				entryXs[entry] = xs[thing];
+				entryYs[entry] = ys[thing];
+			}
+		}
+	}
+}
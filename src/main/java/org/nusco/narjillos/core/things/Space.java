@@ -2,115 +2,616 @@ package org.nusco.narjillos.core.things;
 
 import org.nusco.narjillos.core.configuration.Configuration;
 import org.nusco.narjillos.core.geometry.BoundingBox;
+import org.nusco.narjillos.core.geometry.BoundingVolumeHierarchy;
 import org.nusco.narjillos.core.geometry.Segment;
 import org.nusco.narjillos.core.geometry.Vector;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
-import static org.nusco.narjillos.core.things.HashedLocation.inc;
 import static org.nusco.narjillos.core.things.HashedLocation.dec;
+import static org.nusco.narjillos.core.things.HashedLocation.fromIndex;
+import static org.nusco.narjillos.core.things.HashedLocation.inc;
+import static org.nusco.narjillos.core.things.HashedLocation.toGrid;
+import static org.nusco.narjillos.core.things.HashedLocation.toIndex;
 
 /**
  * Partitioned space for fast neighbor searches, collision detection, etc.
+ * <p>
+ * The grid lives in a CellTable, so neighbor searches work on primitive grid
+ * coordinates and cell ids, and don't allocate.
+ * <p>
+ * Searches don't lock the Space, so multiple threads can run them at the same
+ * time. To make that safe, Space works in phases: call freeze() before you
+ * start searching from multiple threads, and commit() when the threads are
+ * done. While the Space is frozen, it doesn't change: add(), remove() and
+ * update() are queued up, and commit() applies them in order on the calling
+ * thread. Outside of the frozen phase, only the thread that changes the Space
+ * should search it. (Other threads can still call getAll(), which is
+ * synchronized).
+ * <p>
+ * Each type of thing (that is, each label) lives in its own layer, with its
+ * own grid. Searches are addressed by type id (see getTypeId()), so they only
+ * look at things of the type they're interested in. A search for food doesn't
+ * even see the narjillos and eggs that crowd the same cells.
  */
 public class Space {
 
-	private final Map<String, Map<Thing, Set<HashedLocation>>> labelsToThingsToLocations = new LinkedHashMap<>();
-	private final Map<HashedLocation, List<Thing>> locationsToThings = new LinkedHashMap<>();
-	private final List<Thing> allThings = new LinkedList<>();
+	/**
+	 * The type id that matches all things, whatever their label. The empty
+	 * label maps to it.
+	 */
+	public static final int ALL_TYPES = -1;
+
+	// Batches can run in many threads at once, so each thread has its own.
+	private static final ThreadLocal<BatchScratch> batchScratch = ThreadLocal.withInitial(BatchScratch::new);
+
+	private final Map<String, Layer> labelsToLayers = new LinkedHashMap<>();
+
+	// Indexed by type id.
+	private final List<Layer> layers = new ArrayList<>();
+
+	private Layer[] allLayers = new Layer[0];
+
+	private final DenseStore allThings = new DenseStore();
+
+	private final List<Runnable> pendingMutations = new ArrayList<>();
+
+	private boolean isFrozen = false;
+
+	public synchronized void freeze() {
+		isFrozen = true;
+	}
+
+	public synchronized void commit() {
+		isFrozen = false;
+		pendingMutations.forEach(Runnable::run);
+		pendingMutations.clear();
+	}
+
+	public synchronized boolean isFrozen() {
+		return isFrozen;
+	}
+
+	/**
+	 * Returns the type id of the things with the given label, creating a new
+	 * layer for them if needed. Call this once per label, then address your
+	 * searches by id. Don't call it while the Space is frozen.
+	 */
+	public synchronized int getTypeId(String label) {
+		if ("".equals(label))
+			return ALL_TYPES;
+		return getLayer(label).typeId;
+	}
 
 	public synchronized void add(Thing thing) {
+		if (isFrozen) {
+			pendingMutations.add(() -> add(thing));
+			return;
+		}
+
 		validateMaximumSize(thing);
 
-		Set<HashedLocation> locations = calculateHashedLocationsOf(thing);
+		Layer layer = getLayer(thing.getLabel());
+		Footprint footprint = new Footprint(thing.getBoundingBox());
+		footprint.cells = calculateCellsOf(footprint, layer.cells);
 
-		getThingsToLocations(thing.getLabel()).put(thing, locations);
-		locations.stream().forEach(location -> addThingToLocation(location, thing));
-		allThings.add(thing);
+		layer.thingsToFootprints.put(thing, footprint);
+		for (int cell : footprint.cells)
+			layer.cells.add(cell, thing);
+		layer.maxSpan = Math.max(layer.maxSpan, footprint.getSpan());
+		layer.packed = null;
+		footprint.slot = allThings.store(thing);
 	}
 
 	public synchronized void remove(Thing thing) {
-		final Set<HashedLocation> locations = getThingsToLocations(thing.getLabel()).get(thing);
+		if (isFrozen) {
+			pendingMutations.add(() -> remove(thing));
+			return;
+		}
+
+		Layer layer = getLayer(thing.getLabel());
+		final Footprint footprint = layer.thingsToFootprints.remove(thing);
+
+		for (int cell : footprint.cells)
+			layer.cells.remove(cell, thing);
+		layer.packed = null;
 
-		getThingsToLocations(thing.getLabel()).remove(thing);
-		locations.stream().forEach(location -> locationsToThings.get(location).remove(thing));
-		allThings.remove(thing);
+		Thing movedThing = allThings.removeFromSlot(footprint.slot);
+		if (movedThing != null)
+			labelsToLayers.get(movedThing.getLabel()).thingsToFootprints.get(movedThing).slot = footprint.slot;
 	}
 
+	/**
+	 * Call this after a thing moves. It's cheap for things that are still in
+	 * the same cells as before, which is the case most of the time. Things that
+	 * crossed the edge of a cell are moved to their new cells.
+	 */
 	public synchronized void update(Thing thing) {
-		// TODO
+		if (isFrozen) {
+			pendingMutations.add(() -> update(thing));
+			return;
+		}
+
+		Layer layer = labelsToLayers.get(thing.getLabel());
+		Footprint oldFootprint = layer == null ? null : layer.thingsToFootprints.get(thing);
+		if (oldFootprint == null)
+			return;
+
+		// Even if the thing stays in the same cells, its position changed
+		layer.packed = null;
+
+		BoundingBox boundingBox = thing.getBoundingBox();
+		if (oldFootprint.isOnSameCellsAs(boundingBox))
+			return;
+
+		Footprint newFootprint = new Footprint(boundingBox);
+		newFootprint.cells = calculateCellsOf(newFootprint, layer.cells);
+		newFootprint.slot = oldFootprint.slot;
+
+		for (int cell : oldFootprint.cells)
+			if (!contains(newFootprint.cells, cell))
+				layer.cells.remove(cell, thing);
+		for (int cell : newFootprint.cells)
+			if (!contains(oldFootprint.cells, cell))
+				layer.cells.add(cell, thing);
+
+		layer.thingsToFootprints.put(thing, newFootprint);
+		layer.maxSpan = Math.max(layer.maxSpan, newFootprint.getSpan());
 	}
 
 	public synchronized boolean contains(Thing thing) {
-		return getThingsToLocations(thing.getLabel()).containsKey(thing);
+		Layer layer = labelsToLayers.get(thing.getLabel());
+		return layer != null && layer.thingsToFootprints.containsKey(thing);
+	}
+
+	/**
+	 * Returns the thing of the given type that is closest to the given
+	 * thing (not counting the thing itself), or null if there is none.
+	 * <p>
+	 * This is a spiral search. It visits the rings of cells around the thing,
+	 * nearest rings first, and stops as soon as the closest candidate that it
+	 * found is nearer than any cell that it didn't visit yet. If the candidates
+	 * are so few that visiting the cells costs more than checking each of
+	 * them, then it checks each of them instead.
+	 * <p>
+	 * The search assumes that the cell of a thing's position is one of the
+	 * cells of the thing - which is true for any thing that is smaller than a
+	 * cell, such as a food pellet.
+	 */
+	public Thing findClosestTo(Thing thing, int typeId) {
+		Layer[] searchedLayers = getLayers(typeId);
+		return findClosestTo(thing.getPosition(), thing, searchedLayers, getThingsOf(searchedLayers));
+	}
+
+	public Thing findClosestTo(Thing thing, String label) {
+		Layer[] searchedLayers = findLayers(label);
+		if (searchedLayers == null)
+			return null;
+		return findClosestTo(thing.getPosition(), thing, searchedLayers, getThingsOf(searchedLayers));
 	}
 
-	public synchronized Thing findClosestTo(Thing thing, String label) {
-		// Naive three-step approximation. (It can be replaced with spiral search if we ever need more performance).
+	/**
+	 * Like findClosestTo(Thing, int), but from a position rather than from
+	 * a thing.
+	 */
+	public Thing findClosestTo(Vector position, int typeId) {
+		Layer[] searchedLayers = getLayers(typeId);
+		return findClosestTo(position, null, searchedLayers, getThingsOf(searchedLayers));
+	}
+
+	/**
+	 * Like findClosestTo(Vector, int), but it skips the excluded thing. Use
+	 * this to ignore a thing that you removed while the Space was frozen, and
+	 * that is still in it until the next commit().
+	 */
+	public Thing findClosestTo(Vector position, int typeId, Thing excludedThing) {
+		Layer[] searchedLayers = getLayers(typeId);
+		return findClosestTo(position, excludedThing, searchedLayers, getThingsOf(searchedLayers));
+	}
+
+	/**
+	 * Returns the things of the given type that are closer than the given
+	 * distance to the given position.
+	 * <p>
+	 * This searches all the cells within the distance of the position. A
+	 * thing that is bigger than a cell is only in the cells of its corners,
+	 * so the search goes farther by the span of the biggest thing that was
+	 * ever in the layer. (Unless the cells are more than the things to check
+	 * - in that case, it's cheaper to check all the things).
+	 */
+	public Set<Thing> findCloserThan(Vector position, double distance, int typeId) {
+		Layer[] searchedLayers = getLayers(typeId);
+		Collection<Thing> candidates = getThingsOf(searchedLayers);
+
+		long maxSpan = 0;
+		for (Layer layer : searchedLayers)
+			maxSpan = Math.max(maxSpan, layer.maxSpan);
+		long left = toIndex(toGrid(position.x - distance)) - maxSpan;
+		long right = toIndex(toGrid(position.x + distance)) + maxSpan;
+		long bottom = toIndex(toGrid(position.y - distance)) - maxSpan;
+		long top = toIndex(toGrid(position.y + distance)) + maxSpan;
 
-		if (allThings.isEmpty())
+		Set<Thing> result = new LinkedHashSet<>();
+		if ((right - left + 1) * (top - bottom + 1) * searchedLayers.length > candidates.size()) {
+			for (Thing candidate : candidates)
+				if (getDistance(candidate.getPosition(), position) < distance)
+					result.add(candidate);
+			return result;
+		}
+
+		for (long indexX = left; indexX <= right; indexX++) {
+			for (long indexY = bottom; indexY <= top; indexY++) {
+				for (Layer layer : searchedLayers) {
+					CellTable cells = layer.cells;
+					int cell = cells.find(fromIndex(indexX), fromIndex(indexY));
+					if (cell == CellTable.NO_CELL)
+						continue;
+
+					for (int i = 0; i < cells.size(cell); i++) {
+						Thing candidate = cells.get(cell, i);
+						if (getDistance(candidate.getPosition(), position) < distance)
+							result.add(candidate);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	// Skips the excluded thing, unless it's null.
+	private Thing findClosestTo(Vector position, Thing excludedThing, Layer[] searchedLayers, Collection<Thing> candidates) {
+		if (candidates.isEmpty())
 			return null;
 
-		Set<Thing> nearbyNeighbors = getNearbyNeighbors(thing, label);
+		long x = toGrid(position.x);
+		long y = toGrid(position.y);
+		long numberOfRings = 0;
+		for (Layer layer : searchedLayers)
+			numberOfRings = Math.max(numberOfRings, layer.cells.getNumberOfRingsAround(x, y));
 
-		if (!nearbyNeighbors.isEmpty())
-			return findClosestTo_Amongst(thing.getPosition(), nearbyNeighbors);
+		ClosestThingSearch search = new ClosestThingSearch(position, excludedThing, searchedLayers);
+		for (long ring = 0; ring < numberOfRings; ring++) {
+			if (search.visitedCells > candidates.size())
+				return findClosestTo_Amongst(position, excludedThing, candidates);
 
-		return findClosestTo_Amongst(thing.getPosition(), getAll(label));
+			search.visitRing(toIndex(x), toIndex(y), ring);
+
+			if (search.closestDistance <= getDistanceToOuterEdge(position, toIndex(x), toIndex(y), ring))
+				break;
+		}
+		return search.closest;
 	}
 
 	/**
-	 * This only searches in the neighboring areas. So, if the movement is able
-	 * to span more than one area, it will fail to check all potential
-	 * collisions. The assumption here is that movements are smaller than the
-	 * areaSize. If this assumption ever becomes limiting, then we'll have to
-	 * make this method smarter, and search all the areas that are intersected
-	 * by the movement, plus their neighbors.
+	 * Returns the things of the given type that are within collision distance
+	 * of the movement.
+	 * <p>
+	 * This searches all the cells that overlap the bounding box of the
+	 * movement, grown by the collision distance on each side. So it catches
+	 * all the collisions, no matter how long the movement is. (Unless the
+	 * movement spans more cells than there are things to check - in that
+	 * case, it's cheaper to check all the things).
 	 */
-	public synchronized Set<Thing> detectCollisions(Segment movement, String label) {
-		Set<Thing> collidedFoodPellets = new LinkedHashSet<>();
+	public Set<Thing> detectCollisions(Segment movement, int typeId) {
+		return detectCollisions(movement, getLayers(typeId));
+	}
+
+	public Set<Thing> detectCollisions(Segment movement, String label) {
+		Layer[] searchedLayers = findLayers(label);
+		if (searchedLayers == null)
+			return Collections.emptySet();
+		return detectCollisions(movement, searchedLayers);
+	}
+
+	/**
+	 * The batch version of detectCollisions(). It finds the collisions of all
+	 * the movements in one go, and returns the same things in the same order
+	 * as detectCollisions() would - but packed into arrays rather than in a
+	 * Set per movement.
+	 * <p>
+	 * It works on a packed copy of the things' positions, taken when they were
+	 * last added or updated. The copy is reused until the things of the given
+	 * type change, so this is fastest for things that don't move, like food.
+	 * The type id must be the id of an actual type, not ALL_TYPES.
+	 * <p>
+	 * Like the other searches, it doesn't lock the Space. While the Space is
+	 * frozen, you can run a few batches at the same time, and they all share
+	 * the same packed copy.
+	 */
+	public Collisions detectCollisions(List<Segment> movements, int typeId) {
+		if (typeId == ALL_TYPES)
+			throw new IllegalArgumentException("Batch collision queries need a specific type of thing");
+
+		Layer layer = layers.get(typeId);
+		PackedLayer packed = getPackedLayer(layer);
 
 		final double COLLISION_DISTANCE_SQUARED = Configuration.PHYSICS_COLLISION_DISTANCE * Configuration.PHYSICS_COLLISION_DISTANCE;
 
-		getNearbyNeighbors(movement.getStartPoint(), label).stream()
-			.filter(
-				(neighbor) -> {
-					return (movement.getMinimumDistanceFromPointSquared(neighbor.getPosition()) <= COLLISION_DISTANCE_SQUARED);
-				})
-			.forEach(collidedFoodPellets::add);
+		Collisions result = new Collisions(movements.size(), packed.things);
+
+		// For each thing, the stamp of the last movement that collided with
+		// it. A thing can be in more than one cell, but it only collides once.
+		BatchScratch scratch = batchScratch.get();
+		int[] lastCollidingStamps = scratch.startBatch(packed.things.length, movements.size());
+		int baseStamp = scratch.getBaseStamp();
+		SweptBox box = scratch.box;
+
+		for (int movementIndex = 0; movementIndex < movements.size(); movementIndex++) {
+			Segment movement = movements.get(movementIndex);
+			double startX = movement.getStartPoint().x;
+			double startY = movement.getStartPoint().y;
+			double vectorX = movement.getVector().x;
+			double vectorY = movement.getVector().y;
+			int stamp = baseStamp + movementIndex;
+			box.set(movement);
+
+			if (box.getNumberOfCells() > packed.things.length) {
+				for (int thing = 0; thing < packed.things.length; thing++) {
+					double distanceSquared = Segment.getMinimumDistanceFromPointSquared(startX, startY, vectorX, vectorY, packed.xs[thing], packed.ys[thing]);
+					if (distanceSquared <= COLLISION_DISTANCE_SQUARED)
+						result.add(thing);
+				}
+				result.endMovement();
+				continue;
+			}
+
+			for (long indexX = box.left; indexX <= box.right; indexX++) {
+				for (long indexY = box.bottom; indexY <= box.top; indexY++) {
+					int cell = layer.cells.find(fromIndex(indexX), fromIndex(indexY));
+					if (cell == CellTable.NO_CELL)
+						continue;
+
+					for (int entry = packed.cellStarts[cell]; entry < packed.cellStarts[cell + 1]; entry++) {
+						double distanceSquared = Segment.getMinimumDistanceFromPointSquared(startX, startY, vectorX, vectorY, packed.entryXs[entry], packed.entryYs[entry]);
+						if (distanceSquared > COLLISION_DISTANCE_SQUARED)
+							continue;
+
+						int thing = packed.entryThings[entry];
+						if (lastCollidingStamps[thing] == stamp)
+							continue;
+
+						lastCollidingStamps[thing] = stamp;
+						result.add(thing);
+					}
+				}
+			}
+			result.endMovement();
+		}
+
+		return result;
+	}
+
+	private synchronized PackedLayer getPackedLayer(Layer layer) {
+		if (layer.packed == null)
+			layer.packed = new PackedLayer(layer.thingsToFootprints.keySet(), layer.cells);
+		return layer.packed;
+	}
+
+	private Set<Thing> detectCollisions(Segment movement, Layer[] searchedLayers) {
+		SweptBox box = new SweptBox(movement);
+
+		Collection<Thing> candidates = getThingsOf(searchedLayers);
+		if (box.getNumberOfCells() * searchedLayers.length > candidates.size())
+			return detectCollisions_Amongst(movement, candidates);
+
+		Set<Thing> collidedThings = Collections.emptySet();
+		for (long indexX = box.left; indexX <= box.right; indexX++) {
+			for (long indexY = box.bottom; indexY <= box.top; indexY++) {
+				for (Layer layer : searchedLayers) {
+					CellTable cells = layer.cells;
+					int cell = cells.find(fromIndex(indexX), fromIndex(indexY));
+					if (cell == CellTable.NO_CELL)
+						continue;
+
+					for (int i = 0; i < cells.size(cell); i++) {
+						Thing candidate = cells.get(cell, i);
+						if (!isColliding(movement, candidate))
+							continue;
+
+						if (collidedThings.isEmpty())
+							collidedThings = new LinkedHashSet<>();
+						collidedThings.add(candidate);
+					}
+				}
+			}
+		}
+
+		return collidedThings;
+	}
+
+	private Set<Thing> detectCollisions_Amongst(Segment movement, Collection<Thing> candidates) {
+		Set<Thing> collidedThings = Collections.emptySet();
+		for (Thing candidate : candidates) {
+			if (!isColliding(movement, candidate))
+				continue;
+
+			if (collidedThings.isEmpty())
+				collidedThings = new LinkedHashSet<>();
+			collidedThings.add(candidate);
+		}
+		return collidedThings;
+	}
 
-		return collidedFoodPellets;
+	private static boolean isColliding(Segment movement, Thing thing) {
+		final double COLLISION_DISTANCE_SQUARED = Configuration.PHYSICS_COLLISION_DISTANCE * Configuration.PHYSICS_COLLISION_DISTANCE;
+		return movement.getMinimumDistanceFromPointSquared(thing.getPosition()) <= COLLISION_DISTANCE_SQUARED;
+	}
+
+	/**
+	 * The organ-precise version of detectCollisions(). Returns the things of
+	 * the given type that come within collision distance of the segments of
+	 * the given thing. If the other thing is also a CompositeThing, then it's
+	 * the other thing's segments that must come that close.
+	 * <p>
+	 * The bounding volume hierarchies of the things prune most of the pairs
+	 * of segments, so this doesn't check every segment against every other
+	 * segment. Call it when the things are not moving.
+	 */
+	public Set<Thing> detectContacts(CompositeThing thing, int typeId) {
+		BoundingVolumeHierarchy hierarchy = thing.getBoundingVolumeHierarchy();
+		BoundingBox boundingBox = hierarchy.getBoundingBox();
+		double margin = Configuration.PHYSICS_COLLISION_DISTANCE;
+		long left = toIndex(toGrid(boundingBox.left - margin));
+		long right = toIndex(toGrid(boundingBox.right + margin));
+		long bottom = toIndex(toGrid(boundingBox.bottom - margin));
+		long top = toIndex(toGrid(boundingBox.top + margin));
+
+		Set<Thing> result = new LinkedHashSet<>();
+		for (Layer layer : getLayers(typeId)) {
+			// Things are in the cell of their bottom-left corner. Check each
+			// thing there only, and look far enough to the left and to the
+			// bottom to find the corners of the biggest things.
+			long leftmost = left - layer.maxSpan;
+			long bottommost = bottom - layer.maxSpan;
+
+			if ((right - leftmost + 1) * (top - bottommost + 1) > layer.thingsToFootprints.size()) {
+				for (Thing candidate : layer.thingsToFootprints.keySet())
+					if (candidate != thing && isInContact(hierarchy, candidate))
+						result.add(candidate);
+				continue;
+			}
+
+			for (long indexX = leftmost; indexX <= right; indexX++) {
+				for (long indexY = bottommost; indexY <= top; indexY++) {
+					int cell = layer.cells.find(fromIndex(indexX), fromIndex(indexY));
+					if (cell == CellTable.NO_CELL)
+						continue;
+
+					for (int i = 0; i < layer.cells.size(cell); i++) {
+						Thing candidate = layer.cells.get(cell, i);
+						if (candidate == thing || layer.thingsToFootprints.get(candidate).cells[0] != cell)
+							continue;
+						if (isInContact(hierarchy, candidate))
+							result.add(candidate);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static boolean isInContact(BoundingVolumeHierarchy hierarchy, Thing thing) {
+		double distance = Configuration.PHYSICS_COLLISION_DISTANCE;
+		if (thing instanceof CompositeThing)
+			return hierarchy.isCloseTo(((CompositeThing) thing).getBoundingVolumeHierarchy(), distance);
+		return hierarchy.isCloseTo(thing.getPosition(), distance);
+	}
+
+	/**
+	 * A read-only view of all the things. It's cheaper than getAll(""),
+	 * because it doesn't copy the things - but it's live, so don't change the
+	 * Space while you iterate over it, and only use it from the thread that
+	 * changes the Space.
+	 * <p>
+	 * The things are in a dense array: removing a thing moves the last thing
+	 * in its place.
+	 */
+	public List<Thing> viewAll() {
+		return allThings;
 	}
 
 	public synchronized Set<Thing> getAll(String label) {
 		if (label.equals(""))
 			return new LinkedHashSet<>(allThings);
 
-		return new LinkedHashSet<>(getThingsToLocations(label).keySet());
+		return new LinkedHashSet<>(getLayer(label).thingsToFootprints.keySet());
 	}
 
-	private Map<Thing, Set<HashedLocation>> getThingsToLocations(String label) {
-		return labelsToThingsToLocations.computeIfAbsent(label, k -> new LinkedHashMap<>());
+	private Layer getLayer(String label) {
+		Layer result = labelsToLayers.get(label);
+		if (result != null)
+			return result;
+
+		result = new Layer(layers.size());
+		labelsToLayers.put(label, result);
+		layers.add(result);
+		allLayers = layers.toArray(new Layer[layers.size()]);
+		return result;
 	}
 
-	Optional<Set<HashedLocation>> getHashedLocationsOf(Thing thing) {
-		Set<HashedLocation> result = getThingsToLocations(thing.getLabel()).get(thing);
-		return Optional.ofNullable(result);
+	private Layer[] getLayers(int typeId) {
+		if (typeId == ALL_TYPES)
+			return allLayers;
+		return layers.get(typeId).asArray;
 	}
 
-	List<Thing> getThingsAtHashedLocation(int lx, int ly) {
-		return locationsToThings.getOrDefault(HashedLocation.at(lx, ly), Collections.emptyList());
+	// Like getLayers(), but addressed by label. It's read-only, so that it's
+	// safe to call while searching: if there is no layer for the label, it
+	// returns null.
+	private Layer[] findLayers(String label) {
+		if (label.equals(""))
+			return allLayers;
+
+		Layer result = labelsToLayers.get(label);
+		if (result == null)
+			return null;
+		return result.asArray;
+	}
+
+	private Collection<Thing> getThingsOf(Layer[] searchedLayers) {
+		if (searchedLayers.length == 1)
+			return searchedLayers[0].thingsToFootprints.keySet();
+		return allThings;
 	}
 
-	Set<Thing> getNearbyNeighbors(Thing thing, String label) {
-		Set<Thing> result = getNearbyNeighbors(thing.getPosition(), label);
+	synchronized Optional<Set<HashedLocation>> getHashedLocationsOf(Thing thing) {
+		Layer layer = labelsToLayers.get(thing.getLabel());
+		Footprint footprint = layer == null ? null : layer.thingsToFootprints.get(thing);
+		if (footprint == null)
+			return Optional.empty();
+
+		Set<HashedLocation> result = new LinkedHashSet<>();
+		for (int cell : footprint.cells)
+			result.add(HashedLocation.unpack(layer.cells.getKey(cell)));
+		return Optional.of(result);
+	}
+
+	synchronized List<Thing> getThingsAtHashedLocation(int lx, int ly) {
+		List<Thing> result = new ArrayList<>();
+		for (Layer layer : allLayers) {
+			int cell = layer.cells.find(lx, ly);
+			if (cell == CellTable.NO_CELL)
+				continue;
+
+			for (int i = 0; i < layer.cells.size(cell); i++)
+				result.add(layer.cells.get(cell, i));
+		}
+		return result;
+	}
+
+	synchronized Set<Thing> getNearbyNeighbors(Thing thing, String label) {
+		Set<Thing> result = new LinkedHashSet<>();
+		Layer[] searchedLayers = findLayers(label);
+		if (searchedLayers == null)
+			return result;
+
+		Vector position = thing.getPosition();
+		long x = toGrid(position.x);
+		long y = toGrid(position.y);
+
+		for (int dx = -1; dx <= 1; dx++) {
+			for (int dy = -1; dy <= 1; dy++) {
+				for (Layer layer : searchedLayers) {
+					int cell = layer.cells.find(neighbor(x, dx), neighbor(y, dy));
+					if (cell == CellTable.NO_CELL)
+						continue;
+
+					for (int i = 0; i < layer.cells.size(cell); i++)
+						result.add(layer.cells.get(cell, i));
+				}
+			}
+		}
+
 		result.remove(thing);
 		return result;
 	}
@@ -127,65 +628,304 @@ public class Space {
 //		throw new RuntimeException(message);
 	}
 
-	private Set<HashedLocation> calculateHashedLocationsOf(Thing thing) {
-		Set<HashedLocation> result = new LinkedHashSet<>();
-		BoundingBox boundingBox = thing.getBoundingBox();
-		result.add(HashedLocation.ofCoordinates(boundingBox.left, boundingBox.bottom));
-		result.add(HashedLocation.ofCoordinates(boundingBox.left, boundingBox.top));
-		result.add(HashedLocation.ofCoordinates(boundingBox.right, boundingBox.top));
-		result.add(HashedLocation.ofCoordinates(boundingBox.right, boundingBox.bottom));
-		return result;
+	// The cells of the corners of the footprint, without duplicates.
+	private static int[] calculateCellsOf(Footprint footprint, CellTable cells) {
+		long left = footprint.left;
+		long right = footprint.right;
+		long bottom = footprint.bottom;
+		long top = footprint.top;
+
+		if (left == right && bottom == top)
+			return new int[] { cells.findOrCreate(left, bottom) };
+
+		if (left == right)
+			return new int[] { cells.findOrCreate(left, bottom), cells.findOrCreate(left, top) };
+
+		if (bottom == top)
+			return new int[] { cells.findOrCreate(left, bottom), cells.findOrCreate(right, top) };
+
+		return new int[] {
+			cells.findOrCreate(left, bottom),
+			cells.findOrCreate(left, top),
+			cells.findOrCreate(right, top),
+			cells.findOrCreate(right, bottom)
+		};
 	}
 
-	private void addThingToLocation(HashedLocation location, Thing thing) {
-		if (!locationsToThings.containsKey(location))
-			locationsToThings.put(location, new LinkedList<>());
-		locationsToThings.get(location).add(thing);
+	private static boolean contains(int[] cells, int cell) {
+		for (int element : cells)
+			if (element == cell)
+				return true;
+		return false;
 	}
 
-	private Set<Thing> getNearbyNeighbors(Vector position, String label) {
-		HashedLocation location = HashedLocation.ofCoordinates(position.x, position.y);
-		long x = location.lx;
-		long y = location.ly;
+	// The grid coordinate at the given offset (-1, 0 or 1) from a coordinate.
+	private static long neighbor(long coordinate, int offset) {
+		if (offset < 0)
+			return dec(coordinate);
+		if (offset > 0)
+			return inc(coordinate);
+		return coordinate;
+	}
 
-		Set<Thing> result = new LinkedHashSet<>();
+	// The distance from a position to the outer edge of a ring around it.
+	// All the cells beyond the ring are at least this far.
+	private static double getDistanceToOuterEdge(Vector position, long centerIndexX, long centerIndexY, long ring) {
+		double left = position.x - (centerIndexX - ring) * HashedLocation.GRID_SIZE;
+		double right = (centerIndexX + ring + 1) * HashedLocation.GRID_SIZE - position.x;
+		double bottom = position.y - (centerIndexY - ring) * HashedLocation.GRID_SIZE;
+		double top = (centerIndexY + ring + 1) * HashedLocation.GRID_SIZE - position.y;
+		return Math.min(Math.min(left, right), Math.min(bottom, top));
+	}
 
-		populateWithFilteredArea(result, label, HashedLocation.at(dec(x), dec(y)));
-		populateWithFilteredArea(result, label, HashedLocation.at(dec(x), y));
-		populateWithFilteredArea(result, label, HashedLocation.at(dec(x), inc(y)));
-		populateWithFilteredArea(result, label, HashedLocation.at(x, dec(y)));
-		populateWithFilteredArea(result, label, HashedLocation.at(x, y));
-		populateWithFilteredArea(result, label, HashedLocation.at(x, inc(y)));
-		populateWithFilteredArea(result, label, HashedLocation.at(inc(x), dec(y)));
-		populateWithFilteredArea(result, label, HashedLocation.at(inc(x), y));
-		populateWithFilteredArea(result, label, HashedLocation.at(inc(x), inc(y)));
+	private Thing findClosestTo_Amongst(Vector position, Thing excludedThing, Collection<Thing> candidates) {
+		double minDistance = Double.MAX_VALUE;
+		Thing result = null;
+
+		for (Thing candidate : candidates) {
+			if (candidate == excludedThing)
+				continue;
+
+			double distance = getDistance(candidate.getPosition(), position);
+			if (distance < minDistance) {
+				minDistance = distance;
+				result = candidate;
+			}
+		}
 
 		return result;
 	}
 
-	private void populateWithFilteredArea(Set<Thing> collector, String label, HashedLocation location) {
-		List<Thing> things = locationsToThings.get(location);
+	// Same as position1.minus(position2).getLength(), without the intermediate Vector.
+	private static double getDistance(Vector position1, Vector position2) {
+		double x = position1.x - position2.x;
+		double y = position1.y - position2.y;
+		return Math.sqrt(x * x + y * y);
+	}
 
-		if (things == null)
-			return;
+	// The state of a search in findClosestTo().
+	private static class ClosestThingSearch {
+
+		private final Vector position;
+
+		private final Thing excludedThing;
+
+		private final Layer[] searchedLayers;
 
-		things.stream()
-			.filter((thing) -> (thing.getLabel().contains(label)))
-			.forEach(collector::add);
+		Thing closest = null;
+
+		double closestDistance = Double.MAX_VALUE;
+
+		long visitedCells = 0;
+
+		ClosestThingSearch(Vector position, Thing excludedThing, Layer[] searchedLayers) {
+			this.position = position;
+			this.excludedThing = excludedThing;
+			this.searchedLayers = searchedLayers;
+		}
+
+		// Visits the cells at exactly "ring" cells of distance from the center.
+		void visitRing(long centerIndexX, long centerIndexY, long ring) {
+			if (ring == 0) {
+				visit(centerIndexX, centerIndexY);
+				return;
+			}
+
+			for (long indexX = centerIndexX - ring; indexX <= centerIndexX + ring; indexX++) {
+				visit(indexX, centerIndexY - ring);
+				visit(indexX, centerIndexY + ring);
+			}
+			for (long indexY = centerIndexY - ring + 1; indexY < centerIndexY + ring; indexY++) {
+				visit(centerIndexX - ring, indexY);
+				visit(centerIndexX + ring, indexY);
+			}
+		}
+
+		private void visit(long indexX, long indexY) {
+			for (Layer layer : searchedLayers) {
+				visitedCells++;
+
+				CellTable cells = layer.cells;
+				int cell = cells.find(fromIndex(indexX), fromIndex(indexY));
+				if (cell == CellTable.NO_CELL)
+					continue;
+
+				for (int i = 0; i < cells.size(cell); i++) {
+					Thing candidate = cells.get(cell, i);
+					if (candidate == excludedThing)
+						continue;
+
+					double distance = getDistance(candidate.getPosition(), position);
+					if (distance < closestDistance) {
+						closestDistance = distance;
+						closest = candidate;
+					}
+				}
+			}
+		}
+	}
+
+	// The cells that a movement can collide with: the ones that overlap the
+	// bounding box of the movement, grown by the collision distance. The
+	// coordinates are grid indexes (see HashedLocation.toIndex()).
+	private static class SweptBox {
+
+		long left;
+
+		long right;
+
+		long bottom;
+
+		long top;
+
+		SweptBox() {
+		}
+
+		SweptBox(Segment movement) {
+			set(movement);
+		}
+
+		void set(Segment movement) {
+			Vector startPoint = movement.getStartPoint();
+			Vector endPoint = movement.getEndPoint();
+			double margin = Configuration.PHYSICS_COLLISION_DISTANCE;
+			left = toIndex(toGrid(Math.min(startPoint.x, endPoint.x) - margin));
+			right = toIndex(toGrid(Math.max(startPoint.x, endPoint.x) + margin));
+			bottom = toIndex(toGrid(Math.min(startPoint.y, endPoint.y) - margin));
+			top = toIndex(toGrid(Math.max(startPoint.y, endPoint.y) + margin));
+		}
+
+		long getNumberOfCells() {
+			return (right - left + 1) * (top - bottom + 1);
+		}
 	}
 
-	private Thing findClosestTo_Amongst(Vector position, Set<Thing> things) {
-		final double[] minDistance = { Double.MAX_VALUE };
-		final Thing[] result = { null };
+	// The scratch memory of the batch queries in one thread, reused from
+	// batch to batch to keep the tick free of allocations.
+	private static class BatchScratch {
+
+		final SweptBox box = new SweptBox();
+
+		// Each movement gets a new stamp, so the stamps of the previous
+		// batches never match and the array doesn't need clearing.
+		private int[] lastCollidingStamps = new int[0];
+
+		private int nextStamp = 1;
 
-		things.forEach(thing -> {
-			double distance = thing.getPosition().minus(position).getLength();
-			if (distance < minDistance[0]) {
-				minDistance[0] = distance;
-				result[0] = thing;
+		private int baseStamp;
+
+		int[] startBatch(int numberOfThings, int numberOfMovements) {
+			if (lastCollidingStamps.length < numberOfThings) {
+				lastCollidingStamps = new int[numberOfThings];
+				nextStamp = 1;
+			} else if (nextStamp > Integer.MAX_VALUE - numberOfMovements) {
+				Arrays.fill(lastCollidingStamps, 0);
+				nextStamp = 1;
 			}
-		});
+			baseStamp = nextStamp;
+			nextStamp += numberOfMovements;
+			return lastCollidingStamps;
+		}
+
+		int getBaseStamp() {
+			return baseStamp;
+		}
+	}
+
+	// The things of one type, and the grid that contains them.
+	private static class Layer {
+
+		final int typeId;
+
+		final Map<Thing, Footprint> thingsToFootprints = new LinkedHashMap<>();
+
+		final CellTable cells = new CellTable();
+
+		// Built on demand by batch queries, and thrown away when the layer changes.
+		PackedLayer packed;
+
+		// Saves an allocation when searching this layer alone.
+		final Layer[] asArray = new Layer[] { this };
+
+		// The most cells that a thing in the layer ever spanned, minus one.
+		// It only grows.
+		long maxSpan = 0;
+
+		Layer(int typeId) {
+			this.typeId = typeId;
+		}
+	}
+
+	// All the things, packed at the beginning of an array. Each thing knows its
+	// slot in the array (see Footprint), so removing it takes constant time:
+	// the last thing in the array takes its place.
+	private static class DenseStore extends AbstractList<Thing> {
+
+		private Thing[] things = new Thing[64];
+
+		private int size = 0;
+
+		// Returns the slot of the new thing.
+		int store(Thing thing) {
+			if (size == things.length)
+				things = Arrays.copyOf(things, size * 2);
+			things[size] = thing;
+			return size++;
+		}
+
+		// Returns the thing that moved into the slot, if any.
+		Thing removeFromSlot(int slot) {
+			size--;
+			Thing movedThing = things[size];
+			things[slot] = movedThing;
+			things[size] = null;
+			return slot == size ? null : movedThing;
+		}
+
+		@Override
+		public Thing get(int index) {
+			if (index >= size)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			return things[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	// The grid coordinates of a thing's bounding box, the cells it occupies,
+	// and its slot in the DenseStore.
+	private static class Footprint {
+
+		final long left;
+
+		final long right;
+
+		final long bottom;
+
+		final long top;
+
+		int[] cells;
+
+		int slot;
+
+		Footprint(BoundingBox boundingBox) {
+			left = toGrid(boundingBox.left);
+			right = toGrid(boundingBox.right);
+			bottom = toGrid(boundingBox.bottom);
+			top = toGrid(boundingBox.top);
+		}
+
+		// How many cells the footprint spans along its longest side, minus one.
+		long getSpan() {
+			return Math.max(toIndex(right) - toIndex(left), toIndex(top) - toIndex(bottom));
+		}
 
-		return result[0];
+		boolean isOnSameCellsAs(BoundingBox boundingBox) {
+			return left == toGrid(boundingBox.left) && right == toGrid(boundingBox.right)
+				&& bottom == toGrid(boundingBox.bottom) && top == toGrid(boundingBox.top);
+		}
 	}
 }
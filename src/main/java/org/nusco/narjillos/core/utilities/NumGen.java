@@ -1,9 +1,5 @@
 package org.nusco.narjillos.core.utilities;
 
-import java.lang.reflect.Field;
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
  * Generates numbers (mostly pseudo-random ones).
  * <p>
@@ -11,38 +7,55 @@ import java.util.concurrent.atomic.AtomicLong;
  * seed during construction, and it will spew out the same exact numbers given
  * the same sequence of calls.
  * <p>
+ * It uses the same linear congruential formula as java.util.Random, so it
+ * generates the same numbers as a Random with the same internal seed. (That
+ * keeps old experiments running the same way they always did). Unlike
+ * Random, its state is a plain long, so you can read it and serialize it.
+ * <p>
  * You cannot call the same instance of this class from multiple threads,
  * because multithreading and deterministic behavior don't mix. If you try,
- * the NumGen will complain loudly.
+ * the NumGen will complain loudly. (If you need random numbers in parallel
+ * tasks, give each task its own SplitMixStream).
  */
-public class NumGen {
+public class NumGen implements RandomStream {
+
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+
+	private static final long ADDEND = 0xBL;
 
-	private final TransparentRanGen random = new TransparentRanGen();
+	private static final long MASK = (1L << 48) - 1;
+
+	private long seed;
 
 	private long serial = 0;
 
-	private transient Thread authorizedThread;
+	private transient volatile Thread authorizedThread;
 
 	public NumGen(long seed) {
-		random.setSeed(seed);
+		this(seed, 0);
+	}
+
+	public NumGen(long seed, long serial) {
+		this.seed = seed;
+		this.serial = serial;
 		authorizedThread = Thread.currentThread();
 	}
 
-	/**
-	 * Returns a value between 0.0 (inclusive) and 1.0 (exclusive).
-	 */
+	@Override
 	public double nextDouble() {
 		checkThreadIsAuthorized();
-		return random.nextDouble();
+		return (((long) next(26) << 27) + next(27)) * 0x1.0p-53;
 	}
 
+	@Override
 	public int nextInt() {
 		checkThreadIsAuthorized();
-		return random.nextInt();
+		return next(32);
 	}
 
-	public int nextByte() {
-		return Math.abs(nextInt()) % 256;
+	public long nextLong() {
+		checkThreadIsAuthorized();
+		return ((long) next(32) << 32) + next(32);
 	}
 
 	public long nextSerial() {
@@ -51,10 +64,31 @@ public class NumGen {
 	}
 
 	public long getSeed() {
-		return random.getSeed();
+		return seed;
 	}
 
-	private synchronized void checkThreadIsAuthorized() {
+	/**
+	 * Returns the last serial that this NumGen generated.
+	 */
+	public long getSerial() {
+		return serial;
+	}
+
+	// Same as java.util.Random.next()
+	private int next(int bits) {
+		seed = (seed * MULTIPLIER + ADDEND) & MASK;
+		return (int) (seed >>> (48 - bits));
+	}
+
+	private void checkThreadIsAuthorized() {
+		// The common case doesn't need a lock
+		if (Thread.currentThread() == authorizedThread)
+			return;
+
+		claimOrComplain();
+	}
+
+	private synchronized void claimOrComplain() {
 		// I apologize for this slightly paranoid defensive code. Bugs with
 		// non-deterministic random generators are hard to find, so I have to be
 		// extra careful here.
@@ -74,31 +108,4 @@ public class NumGen {
 	private static String getExplanation() {
 		return "(Don't do that, or else there is no guarantee that the same " + "seed will generate the same sequence of numbers.)";
 	}
-
-	// A Random that allows you to get/set the current seed.
-	private static class TransparentRanGen extends Random {
-
-		private static final long serialVersionUID = 1L;
-
-		@Override
-		public void setSeed(long seed) {
-			extractSeed().set(seed);
-		}
-
-		long getSeed() {
-			return extractSeed().get();
-		}
-
-		// TODO: Fix the now-illegal private field access before it gets removed from Java
-		private AtomicLong extractSeed() {
-			// Put on your gloves - this is going to be dirty.
-			try {
-				Field seedField = Random.class.getDeclaredField("seed");
-				seedField.setAccessible(true);
-				return (AtomicLong) seedField.get(this);
-			} catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-		}
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package org.nusco.narjillos.core.utilities;
+
+/**
+ * A source of pseudo-random numbers.
+ * <p>
+ * NumGen is the experiment's own stream: it's sequential, and bound to a
+ * single thread. SplitMixStream is a stream for a single entity in a single
+ * tick, that a parallel task can own.
+ */
+public interface RandomStream {
+
+	/**
+	 * Returns a value between 0.0 (inclusive) and 1.0 (exclusive).
+	 */
+	double nextDouble();
+
+	int nextInt();
+
+	default int nextByte() {
+		return Math.abs(nextInt()) % 256;
+	}
+}
@@ -0,0 +1,51 @@
+package org.nusco.narjillos.core.utilities;
+
+/**
+ * A counter-based RandomStream. Its numbers don't depend on the calls that
+ * came before it: the n-th number is a hash of a seed, an entity id (for
+ * example, a DNA id) and n. Two streams with the same seed and entity id
+ * generate the same numbers, and streams with different arguments are
+ * independent.
+ * <p>
+ * So you can give each entity its own stream, and process the entities in
+ * parallel. You get the same numbers regardless of the number of threads,
+ * or of the order in which they run.
+ * <p>
+ * A stream isn't bound to a thread, but it's not thread-safe either: give
+ * each task its own stream.
+ */
+public class SplitMixStream implements RandomStream {
+
+	private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+	private final long key;
+
+	private long counter = 0;
+
+	public SplitMixStream(long seed, long entityId) {
+		key = mix(mix(seed) + GAMMA + entityId);
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	private long nextLong() {
+		counter++;
+		return mix(key + counter * GAMMA);
+	}
+
+	// The finalizer of the SplitMix64 generator, that turns
+	// consecutive inputs into well-distributed outputs.
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
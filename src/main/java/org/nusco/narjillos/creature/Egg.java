@@ -7,7 +7,7 @@ import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.things.Energy;
 import org.nusco.narjillos.core.things.LifeFormEnergy;
 import org.nusco.narjillos.core.things.Thing;
-import org.nusco.narjillos.core.utilities.NumGen;
+import org.nusco.narjillos.core.utilities.RandomStream;
 import org.nusco.narjillos.genomics.DNA;
 
 import java.util.Optional;
@@ -39,9 +39,9 @@ public class Egg implements Thing {
 
 	private BoundingBox boundingBox;
 
-	public Egg(DNA dna, Vector position, Vector velocity, double energy, NumGen numGen) {
+	public Egg(DNA dna, Vector position, Vector velocity, double energy, RandomStream randomStream) {
 		this.dna = dna;
-		this.incubationTime = calculateIncubationTime(numGen);
+		this.incubationTime = calculateIncubationTime(randomStream);
 		this.position = position;
 		this.boundingBox = BoundingBox.punctiform(position);
 		this.velocity = velocity;
@@ -62,7 +62,7 @@ public class Egg implements Thing {
 		return new Segment(position, velocity);
 	}
 
-	public boolean hatch(NumGen numGen) {
+	public boolean hatch(RandomStream randomStream) {
 		if (hasHatched())
 			return false;
 		if (!hasStopped())
@@ -71,7 +71,7 @@ public class Egg implements Thing {
 			return false;
 
 		hatchAge = age;
-		double angle = numGen.nextInt() % 360;
+		double angle = randomStream.nextInt() % 360;
 		hatchedNarjillo = new Narjillo(dna, getPosition(), angle, new LifeFormEnergy(energy, Configuration.CREATURE_MAX_LIFESPAN));
 		energy = 0;
 		return true;
@@ -158,9 +158,9 @@ public class Egg implements Thing {
 		return incubationTime;
 	}
 
-	private int calculateIncubationTime(NumGen numGen) {
+	private int calculateIncubationTime(RandomStream randomStream) {
 		final int MAX_INCUBATION_INTERVAL = Configuration.EGG_MAX_INCUBATION_TIME - Configuration.EGG_MIN_INCUBATION_TIME;
-		int extraIncubation = (int) (MAX_INCUBATION_INTERVAL * numGen.nextDouble());
+		int extraIncubation = (int) (MAX_INCUBATION_INTERVAL * randomStream.nextDouble());
 		return Configuration.EGG_MIN_INCUBATION_TIME + extraIncubation;
 	}
 }
@@ -1,29 +1,45 @@
 package org.nusco.narjillos.creature;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.List;
 
 import org.nusco.narjillos.core.chemistry.Element;
 import org.nusco.narjillos.core.geometry.BoundingBox;
+import org.nusco.narjillos.core.geometry.BoundingVolumeHierarchy;
 import org.nusco.narjillos.core.geometry.Segment;
 import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.things.CompositeThing;
 import org.nusco.narjillos.core.things.Energy;
 import org.nusco.narjillos.core.things.Thing;
 import org.nusco.narjillos.core.configuration.Configuration;
-import org.nusco.narjillos.core.utilities.NumGen;
+import org.nusco.narjillos.core.utilities.RandomStream;
 import org.nusco.narjillos.creature.body.Body;
 import org.nusco.narjillos.creature.body.ConnectedOrgan;
 import org.nusco.narjillos.creature.body.Mouth;
 import org.nusco.narjillos.creature.embryogenesis.Embryo;
 import org.nusco.narjillos.genomics.DNA;
-import org.nusco.narjillos.genomics.DNALog;
 
 /**
  * A fully-formed, autonomous creature.
+ * <p>
+ * A narjillo is not thread-safe: only the thread that ticks it should use it.
+ * Other threads can read its snapshot instead (see getSnapshot()).
  */
-public class Narjillo implements Thing {
+public class Narjillo implements CompositeThing {
 
 	public static final String LABEL = "narjillo";
 
+	private static final VarHandle SNAPSHOT;
+
+	static {
+		try {
+			SNAPSHOT = MethodHandles.lookup().findVarHandle(Narjillo.class, "snapshot", NarjilloSnapshot.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
 	private final Body body;
 
 	private final DNA dna;
@@ -40,11 +56,22 @@ public class Narjillo implements Thing {
 
 	private transient boolean isInPain = false;
 
+	// Only written by the thread that ticks the narjillo (see
+	// publishSnapshot()), and only read by the other threads.
+	private transient NarjilloSnapshot snapshot;
+
+	private transient volatile boolean isObserved;
+
 	public Narjillo(DNA dna, Vector position, double angle, Energy energy) {
 		this.body = new Embryo(dna).develop();
 		body.forcePosition(position, angle);
 		this.dna = dna;
 		this.energy = energy;
+
+		// Start with a snapshot, so that other threads can see the narjillo
+		// right away. (Deserialized narjillos still have to wait for their
+		// first snapshot, though).
+		snapshot = new NarjilloSnapshot(this);
 	}
 
 	@Override
@@ -91,6 +118,11 @@ public class Narjillo implements Thing {
 		return body.getBoundingBox();
 	}
 
+	@Override
+	public BoundingVolumeHierarchy getBoundingVolumeHierarchy() {
+		return body.getOrgansHierarchy();
+	}
+
 	@Override
 	public String getLabel() {
 		return Narjillo.LABEL;
@@ -125,10 +157,44 @@ public class Narjillo implements Thing {
 		return body;
 	}
 
+	/**
+	 * A recent state of the narjillo, for threads that don't tick it (like the
+	 * views). The narjillo doesn't bother to update its snapshot until somebody
+	 * calls this method, so the first call might return an old snapshot - or
+	 * null, if the narjillo was just deserialized.
+	 */
+	public NarjilloSnapshot getSnapshot() {
+		markObserved();
+		return (NarjilloSnapshot) SNAPSHOT.getAcquire(this);
+	}
+
+	/**
+	 * Tells the narjillo that somebody is interested in its snapshots, so
+	 * that publishSnapshot() starts updating them.
+	 */
+	public void markObserved() {
+		if (!isObserved)
+			isObserved = true;
+	}
+
+	/**
+	 * Call this from the thread that ticks the narjillo, once the narjillo
+	 * is done changing for the current tick of the environment. If nobody
+	 * ever asked for a snapshot, it does nothing.
+	 */
+	public void publishSnapshot() {
+		if (isObserved)
+			SNAPSHOT.setRelease(this, new NarjilloSnapshot(this));
+	}
+
 	public List<ConnectedOrgan> getOrgans() {
 		return body.getOrgans();
 	}
 
+	public int getTickCost() {
+		return body.getTickCost();
+	}
+
 	public Mouth getMouth() {
 		return mouth;
 	}
@@ -138,32 +204,39 @@ public class Narjillo implements Thing {
 	}
 
 	/**
-	 * Returns the newly laid egg, or null if the narjillo doesn't want to lay it.
+	 * Tells whether the narjillo wants to lay an egg now. If it does, call
+	 * layEgg().
 	 */
-	public Egg layEgg(DNALog dnaLog, NumGen numGen) {
+	public boolean isReadyToLayEgg() {
 		if (getAge() < nextEggAge)
-			return null;
+			return false;
 
 		if (isTooYoungToLayEggs()) {
 			// skip this chance to reproduce
 			decideWhenToLayTheNextEgg();
-			return null;
+			return false;
 		}
 
 		double energyToChild = getBody().getEnergyToChildren();
 		double energyToEgg = Math.pow(getBody().getEggVelocity() * Configuration.EGG_MASS, 2);
 
 		double totalEnergyRequired = energyToChild + energyToEgg;
-		if (getEnergy().getValue() < totalEnergyRequired)
-			return null;
+		return getEnergy().getValue() >= totalEnergyRequired;
+	}
 
+	/**
+	 * Returns a newly laid egg, with a mutation of the narjillo's DNA that
+	 * has the given id. The caller is in charge of saving the DNA.
+	 */
+	public Egg layEgg(long childDNAId, RandomStream randomStream) {
+		double energyToChild = getBody().getEnergyToChildren();
 		getEnergy().increaseBy(-energyToChild);
-		DNA childDNA = mutateDna(dnaLog, getDNA(), numGen);
+		DNA childDNA = getDNA().mutate(childDNAId, randomStream);
 
 		decideWhenToLayTheNextEgg();
 		Vector position = getNeckLocation();
-		Vector velocity = Vector.polar(360 * numGen.nextDouble(), getBody().getEggVelocity());
-		return new Egg(childDNA, position, velocity, energyToChild, numGen);
+		Vector velocity = Vector.polar(360 * randomStream.nextDouble(), getBody().getEggVelocity());
+		return new Egg(childDNA, position, velocity, energyToChild, randomStream);
 	}
 
 	public Element getBreathedElement() {
@@ -195,12 +268,6 @@ public class Narjillo implements Thing {
 		return isInPain;
 	}
 
-	private DNA mutateDna(DNALog dnaLog, DNA parent, NumGen numGen) {
-		DNA result = parent.mutate(numGen.nextSerial(), numGen);
-		dnaLog.save(result);
-		return result;
-	}
-
 	private void forgetPain() {
 		isInPain = false;
 	}
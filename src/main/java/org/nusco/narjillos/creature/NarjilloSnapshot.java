@@ -0,0 +1,100 @@
+package org.nusco.narjillos.creature;
+
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.creature.body.OrganSnapshot;
+
+/**
+ * An immutable copy of what other threads (like the views) want to know
+ * about a narjillo: where it is, how it's moving, and how much energy it has
+ * left. See Narjillo.getSnapshot().
+ */
+public class NarjilloSnapshot {
+
+	private final Vector position;
+
+	private final Vector centerOfMass;
+
+	private final double radius;
+
+	private final double headAngle;
+
+	private final Vector mouthDirection;
+
+	private final double brainWaveAngle;
+
+	private final double energy;
+
+	private final double maximumEnergy;
+
+	private final boolean isInPain;
+
+	private final long age;
+
+	private final OrganSnapshot[] organs;
+
+	NarjilloSnapshot(Narjillo narjillo) {
+		position = narjillo.getPosition();
+		centerOfMass = narjillo.getCenterOfMass();
+		radius = narjillo.getRadius();
+		headAngle = narjillo.getBody().getHead().getAbsoluteAngle();
+		mouthDirection = narjillo.getMouth().getDirection();
+		brainWaveAngle = narjillo.getBrainWaveAngle();
+		energy = narjillo.getEnergy().getValue();
+		maximumEnergy = narjillo.getEnergy().getMaximumValue();
+		isInPain = narjillo.isInPain();
+		age = narjillo.getAge();
+		organs = narjillo.getBody().takeOrganSnapshots();
+	}
+
+	public Vector getPosition() {
+		return position;
+	}
+
+	public Vector getCenterOfMass() {
+		return centerOfMass;
+	}
+
+	public double getRadius() {
+		return radius;
+	}
+
+	public double getHeadAngle() {
+		return headAngle;
+	}
+
+	public Vector getMouthDirection() {
+		return mouthDirection;
+	}
+
+	public double getBrainWaveAngle() {
+		return brainWaveAngle;
+	}
+
+	public double getEnergy() {
+		return energy;
+	}
+
+	public double getMaximumEnergy() {
+		return maximumEnergy;
+	}
+
+	public boolean isInPain() {
+		return isInPain;
+	}
+
+	public boolean isDead() {
+		return energy <= 0;
+	}
+
+	public long getAge() {
+		return age;
+	}
+
+	/**
+	 * The snapshot of an organ, in the same position as the organ in
+	 * Narjillo.getOrgans().
+	 */
+	public OrganSnapshot getOrgan(int index) {
+		return organs[index];
+	}
+}
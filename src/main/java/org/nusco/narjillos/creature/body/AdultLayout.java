@@ -0,0 +1,96 @@
+package org.nusco.narjillos.creature.body;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nusco.narjillos.core.geometry.Angle;
+import org.nusco.narjillos.core.geometry.Vector;
+
+/**
+ * The organs of a fully grown body, flattened into an array in the same
+ * order as the recursive methods of MovingOrgan visit them: each organ comes
+ * before its children. Adults don't grow anymore, so the layout can tick,
+ * rotate and translate the organs with plain loops, skipping all the growth
+ * bookkeeping: no calls to growBy(), and no recalculation of the masses.
+ * <p>
+ * The organs move through the same steps in the same order as they would in
+ * the recursive methods, so the results are exactly the same.
+ * <p>
+ * Once a body has a layout, it never changes. Only the thread that ticks the
+ * body should use it.
+ */
+class AdultLayout {
+
+	private static final int NO_PARENT = -1;
+
+	private final Head head;
+
+	private final MovingOrgan[] organs;
+
+	private final int[] parents;
+
+	// The output of each organ's nerve during the current tick,
+	// that becomes the input of its children's nerves.
+	private final double[] signals;
+
+	AdultLayout(Head head) {
+		this.head = head;
+
+		List<MovingOrgan> organsList = new ArrayList<>();
+		List<Integer> parentsList = new ArrayList<>();
+		addWithChildren(head, NO_PARENT, organsList, parentsList);
+
+		organs = organsList.toArray(new MovingOrgan[organsList.size()]);
+		parents = new int[organs.length];
+		for (int i = 0; i < parents.length; i++)
+			parents[i] = parentsList.get(i);
+		signals = new double[organs.length];
+	}
+
+	static boolean isFullyGrown(List<ConnectedOrgan> organs) {
+		for (Organ organ : organs)
+			if (!organ.isFullyGrown())
+				return false;
+		return true;
+	}
+
+	/**
+	 * Same as Head.tick(), minus the growth.
+	 */
+	void tick(double angleToTarget) {
+		for (int i = 0; i < organs.length; i++) {
+			MovingOrgan organ = organs[i];
+			double inputSignal = (parents[i] == NO_PARENT) ? head.getWaveBeatRatio() : signals[parents[i]];
+			double processedPercentOfAmplitude = organ.getNerve().tick(inputSignal);
+			signals[i] = processedPercentOfAmplitude;
+			organ.setAngleToParent(organ.calculateNewAngleToParent(processedPercentOfAmplitude, angleToTarget));
+			organ.updateGeometry();
+		}
+	}
+
+	/**
+	 * Same as Head.rotateBy().
+	 */
+	void rotateBy(double rotation) {
+		head.setAngleToParent(Angle.normalize(head.getAngleToParent() + rotation));
+		for (MovingOrgan organ : organs)
+			organ.updateGeometry();
+	}
+
+	/**
+	 * Same as Head.translateBy().
+	 */
+	void translateBy(Vector translation) {
+		head.moveStartPointBy(translation);
+		for (MovingOrgan organ : organs)
+			organ.updateAfterTranslation();
+	}
+
+	private static void addWithChildren(MovingOrgan organ, int parent, List<MovingOrgan> organs, List<Integer> parents) {
+		int index = organs.size();
+		organs.add(organ);
+		parents.add(parent);
+		for (ConnectedOrgan child : organ.getChildren())
+			addWithChildren((MovingOrgan) child, index, organs, parents);
+	}
+}
@@ -1,17 +1,12 @@
 package org.nusco.narjillos.creature.body;
 
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import org.nusco.narjillos.core.chemistry.Element;
 import org.nusco.narjillos.core.geometry.Angle;
 import org.nusco.narjillos.core.geometry.BoundingBox;
-import org.nusco.narjillos.core.geometry.Segment;
+import org.nusco.narjillos.core.geometry.BoundingVolumeHierarchy;
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.geometry.ZeroVectorAngleException;
 import org.nusco.narjillos.core.configuration.Configuration;
@@ -22,9 +17,27 @@ import org.nusco.narjillos.core.physics.TranslationsPhysicsEngine;
  * The physical body of a Narjillo, with all its organs and their position in space.
  * <p>
  * This class contains the all-important Body.tick() method. Look at its comments for details.
+ * <p>
+ * A Body is not thread-safe: only the thread that ticks it should use it. Other
+ * threads can read the organs' snapshots instead (see takeOrganSnapshots()).
  */
 public class Body {
 
+	// The passes of tick() that read the organs: the initial state, the
+	// rotations, the center of mass and the translations.
+	private static final int READING_PASSES = 4;
+
+	// The passes that move the organs through the tree: the angles, the
+	// rotation, the recentering and the translation.
+	private static final int MOVING_PASSES = 4;
+
+	// The same four moves through the adult layout are flat loops over
+	// arrays, with no growth to check. They take about half the work.
+	private static final int ADULT_MOVING_PASSES = 2;
+
+	// The pass that updates the masses, while the body is still growing.
+	private static final int GROWING_PASSES = 1;
+
 	private final MovingOrgan head;
 
 	private final double metabolicConsumption;
@@ -41,10 +54,19 @@ public class Body {
 
 	private transient List<ConnectedOrgan> organs;
 
+	private transient BodyKernel kernel;
+
+	// Null until the body is fully grown.
+	private transient AdultLayout adultLayout;
+
 	private transient Vector cachedCenterOfMass = null;
 
 	private transient BoundingBox cachedBoundingBox = null;
 
+	private transient BoundingVolumeHierarchy organsHierarchy = null;
+
+	private transient boolean isOrgansHierarchyStale = true;
+
 	private transient double cachedRadius = Double.NaN;
 
 	public Body(MovingOrgan head) {
@@ -125,13 +147,13 @@ public class Body {
 		return adultMass;
 	}
 
-	public synchronized double getRadius() {
+	public double getRadius() {
 		if (Double.isNaN(cachedRadius))
 			cachedRadius = calculateRadius(getCenterOfMass());
 		return cachedRadius;
 	}
 
-	public synchronized Vector getCenterOfMass() {
+	public Vector getCenterOfMass() {
 		if (cachedCenterOfMass == null)
 			cachedCenterOfMass = calculateCenterOfMass();
 		return cachedCenterOfMass;
@@ -139,10 +161,52 @@ public class Body {
 
 	public BoundingBox getBoundingBox() {
 		if (cachedBoundingBox == null)
-			cachedBoundingBox = calculateBoundingBox();
+			cachedBoundingBox = getOrgansHierarchy().getBoundingBox();
 		return cachedBoundingBox;
 	}
 
+	/**
+	 * A bounding volume hierarchy over the segments of the organs. It's
+	 * refitted lazily after the body moves, rather than rebuilt.
+	 */
+	public BoundingVolumeHierarchy getOrgansHierarchy() {
+		if (organsHierarchy == null)
+			organsHierarchy = new BoundingVolumeHierarchy(getOrgans().size());
+		else if (!isOrgansHierarchyStale)
+			return organsHierarchy;
+
+		List<ConnectedOrgan> organs = getOrgans();
+		for (int i = 0; i < organs.size(); i++)
+			organsHierarchy.setSegment(i, organs.get(i).toSegment());
+		organsHierarchy.refit();
+		isOrgansHierarchyStale = false;
+		return organsHierarchy;
+	}
+
+	/**
+	 * A rough estimate of how much work a call to tick() takes, in organ
+	 * visits: the number of organs times the number of passes on them.
+	 */
+	public int getTickCost() {
+		int passesOnOrgans = READING_PASSES;
+		passesOnOrgans += (adultLayout != null) ? ADULT_MOVING_PASSES : MOVING_PASSES;
+		if (!hasStoppedGrowing())
+			passesOnOrgans += GROWING_PASSES;
+		return getOrgans().size() * passesOnOrgans;
+	}
+
+	/**
+	 * Copies the current state of the organs, in the same order as
+	 * getOrgans().
+	 */
+	public OrganSnapshot[] takeOrganSnapshots() {
+		List<ConnectedOrgan> organs = getOrgans();
+		OrganSnapshot[] result = new OrganSnapshot[organs.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = new OrganSnapshot(organs.get(i));
+		return result;
+	}
+
 	public void forcePosition(Vector position, double angle) {
 		getHead().forcePosition(position, angle);
 		resetCaches();
@@ -164,16 +228,18 @@ public class Body {
 		// (Note that we could calculate the angles from the positions, but
 		// computing angles is expensive - so it's faster to store the angles
 		// away now that we already have them).
-		Vector initialCenterOfMass = calculateCenterOfMass();
-		Map<Organ, Double> initialAnglesOfOrgans = calculateAnglesOfOrgans();
-		Map<Organ, Segment> initialPositionsOfOrgans = calculatePositionsOfOrgans();
+		BodyKernel kernel = getKernel();
+		AdultLayout adultLayout = getAdultLayout();
+		Vector initialCenterOfMass = kernel.saveInitialState(mass);
 
 		// This first step happens as if the body where in a vacuum.
 		// The organs in the body remodel their own geometry based on the
 		// target's direction. They don't "think" were to go - they just
 		// changes their positions *somehow*. Natural selection will eventually
 		// favor movements that result in getting closer to the target.
-		tick_step1_updateAngles(targetDirection);
+		// (Fully grown bodies take a shortcut through their adult layout,
+		// that does the same thing without the growth bookkeeping).
+		tick_step1_updateAngles(adultLayout, targetDirection);
 
 		// The organs might have grown during the previous ticks.
 		// Update the masses in a still-developing body. (Then stop
@@ -184,21 +250,21 @@ public class Body {
 		// Changing the angles in the body results in a rotational force.
 		// Rotate the body to match the force. In other words, keep the body's
 		// moment of inertia equal to zero.
-		double rotationEnergy = tick_step2_rotate(initialAnglesOfOrgans, initialCenterOfMass, mass);
+		double rotationEnergy = tick_step2_rotate(adultLayout, kernel, initialCenterOfMass, mass);
 
 		// The previous updates moved the center of mass. Remember, we're
 		// in a vacuum - so the center of mass shouldn't move. Let's put it
 		// back to its original position.
 		// It's important to recalculate the center of mass here.
 		// Otherwise, we will get the old, cached value from before the movement.
-		tick_step3_recenter(initialCenterOfMass, calculateCenterOfMass());
+		tick_step3_recenter(adultLayout, initialCenterOfMass, calculateCenterOfMass());
 
 		// Now we can finally move out of the "vacuum" reference system.
 		// All the movements from the previous steps result in a different
 		// body position in space, and this different position generates
 		// translational forces. We can update the body position based on
 		// these translations.
-		double translationEnergy = tick_step4_translate(initialPositionsOfOrgans, mass);
+		double translationEnergy = tick_step4_translate(adultLayout, kernel, mass);
 
 		resetCaches();
 
@@ -226,23 +292,45 @@ public class Body {
 		redMass = 0;
 		greenMass = 0;
 		blueMass = 0;
-		for (Organ organ : getOrgans()) {
+		List<ConnectedOrgan> organs = getOrgans();
+		for (int i = 0; i < organs.size(); i++) {
+			Organ organ = organs.get(i);
 			double organMass = organ.getMass();
 			mass += organMass;
 			redMass += organMass * organ.getFiber().getPercentOfRed();
 			greenMass += organMass * organ.getFiber().getPercentOfGreen();
 			blueMass += organMass * organ.getFiber().getPercentOfBlue();
+
+			// Keep the kernel's copy of the masses up to date in the same pass
+			if (kernel != null)
+				kernel.setMass(i, organMass);
 		}
 	}
 
+	private BodyKernel getKernel() {
+		if (kernel == null)
+			kernel = new BodyKernel(head, getOrgans());
+		return kernel;
+	}
+
+	// The mass alone doesn't tell whether a body is fully grown: an organ
+	// with zero adult thickness can keep growing in length without gaining
+	// mass. So check the organs as well.
+	private AdultLayout getAdultLayout() {
+		if (adultLayout == null && hasStoppedGrowing() && AdultLayout.isFullyGrown(getOrgans()))
+			adultLayout = new AdultLayout(getHead());
+		return adultLayout;
+	}
+
 	private boolean hasStoppedGrowing() {
 		return mass >= getAdultMass();
 	}
 
-	private synchronized void resetCaches() {
+	private void resetCaches() {
 		cachedCenterOfMass = null;
 		cachedBoundingBox = null;
 		cachedRadius = Double.NaN;
+		isOrgansHierarchyStale = true;
 	}
 
 	private Vector calculateCenterOfMass() {
@@ -251,32 +339,18 @@ public class Body {
 
 		// do it in one swoop instead of creating a lot of
 		// intermediate vectors
-
-		List<ConnectedOrgan> organs = getOrgans();
-		Vector[] weightedCentersOfMass = new Vector[organs.size()];
-		Iterator<ConnectedOrgan> iterator = organs.iterator();
-		for (int i = 0; i < weightedCentersOfMass.length; i++) {
-			Organ organ = iterator.next();
-			weightedCentersOfMass[i] = organ.getCenterOfMass().by(organ.getMass());
-		}
-
 		double totalX = 0;
 		double totalY = 0;
-		for (Vector weightedCenterOfMass : weightedCentersOfMass) {
-			totalX += weightedCenterOfMass.x;
-			totalY += weightedCenterOfMass.y;
+		for (Organ organ : getOrgans()) {
+			Vector centerOfMass = organ.getCenterOfMass();
+			double organMass = organ.getMass();
+			totalX += centerOfMass.x * organMass;
+			totalY += centerOfMass.y * organMass;
 		}
 
 		return Vector.cartesian(totalX / mass, totalY / mass);
 	}
 
-	private BoundingBox calculateBoundingBox() {
-		Set<BoundingBox> organBoundingBoxes = new LinkedHashSet<>();
-		for (ConnectedOrgan connectedOrgan : getOrgans())
-			organBoundingBoxes.add(connectedOrgan.getBoundingBox());
-		return BoundingBox.union(organBoundingBoxes);
-	}
-
 	// Creatures with a prevalence of red, green and blue mass breathe oxygen,
 	// hydrogen and nitrogen, respectively.
 	private Element getBreathedElementFromFibers() {
@@ -287,33 +361,41 @@ public class Body {
 		return Element.NITROGEN;
 	}
 
-	private void tick_step1_updateAngles(Vector targetDirection) {
+	private void tick_step1_updateAngles(AdultLayout adultLayout, Vector targetDirection) {
 		double angleToTarget = getAngleTo(targetDirection);
-		getHead().tick(angleToTarget);
-	}
-
-	private double tick_step2_rotate(Map<Organ, Double> initialAnglesOfOrgans, Vector centerOfMass, double mass) {
-		RotationsPhysicsEngine forceField = new RotationsPhysicsEngine(mass, calculateRadius(centerOfMass), centerOfMass);
-		for (Organ bodyPart : getOrgans())
-			forceField.registerMovement(initialAnglesOfOrgans.get(bodyPart), bodyPart.getAbsoluteAngle(), bodyPart.toSegment(),
-				bodyPart.getMass());
-		getHead().rotateBy(forceField.getRotation());
+		if (adultLayout != null)
+			adultLayout.tick(angleToTarget);
+		else
+			getHead().tick(angleToTarget);
+	}
+
+	private double tick_step2_rotate(AdultLayout adultLayout, BodyKernel kernel, Vector centerOfMass, double mass) {
+		RotationsPhysicsEngine forceField = kernel.calculateRotations(mass, centerOfMass);
+		if (adultLayout != null)
+			adultLayout.rotateBy(forceField.getRotation());
+		else
+			getHead().rotateBy(forceField.getRotation());
 		return forceField.getEnergy();
 	}
 
-	private void tick_step3_recenter(Vector centerOfMassBeforeReshaping, Vector centerOfMassAfterReshaping) {
+	private void tick_step3_recenter(AdultLayout adultLayout, Vector centerOfMassBeforeReshaping, Vector centerOfMassAfterReshaping) {
 		Vector centerOfMassOffset = centerOfMassBeforeReshaping.minus(centerOfMassAfterReshaping);
-		getHead().translateBy(centerOfMassOffset);
+		translateOrgansBy(adultLayout, centerOfMassOffset);
 	}
 
-	private double tick_step4_translate(Map<Organ, Segment> initialPositions, double mass) {
-		TranslationsPhysicsEngine forceField = new TranslationsPhysicsEngine(mass);
-		for (Organ bodyPart : getOrgans())
-			forceField.registerMovement(initialPositions.get(bodyPart), bodyPart.toSegment(), bodyPart.getMass());
-		getHead().translateBy(forceField.getTranslation());
+	private double tick_step4_translate(AdultLayout adultLayout, BodyKernel kernel, double mass) {
+		TranslationsPhysicsEngine forceField = kernel.calculateTranslations(mass);
+		translateOrgansBy(adultLayout, forceField.getTranslation());
 		return forceField.getEnergy();
 	}
 
+	private void translateOrgansBy(AdultLayout adultLayout, Vector translation) {
+		if (adultLayout != null)
+			adultLayout.translateBy(translation);
+		else
+			getHead().translateBy(translation);
+	}
+
 	private double getEnergyConsumed(double rotationEnergy, double translationEnergy) {
 		return (rotationEnergy + translationEnergy) * metabolicConsumption;
 	}
@@ -335,20 +417,6 @@ public class Body {
 		}
 	}
 
-	private Map<Organ, Segment> calculatePositionsOfOrgans() {
-		Map<Organ, Segment> result = new LinkedHashMap<>();
-		for (Organ organ : getOrgans())
-			result.put(organ, organ.toSegment());
-		return result;
-	}
-
-	private Map<Organ, Double> calculateAnglesOfOrgans() {
-		Map<Organ, Double> result = new LinkedHashMap<>();
-		for (Organ organ : getOrgans())
-			result.put(organ, organ.getAbsoluteAngle());
-		return result;
-	}
-
 	private double calculateAdultMass() {
 		double result = 0;
 		for (Organ organ : getOrgans())
@@ -357,12 +425,9 @@ public class Body {
 	}
 
 	private double calculateRadius(Vector centerOfMass) {
-		final double MIN_RADIUS = 1;
-		double result = MIN_RADIUS;
+		double result = BodyKernel.MIN_RADIUS;
 		for (Organ bodyPart : getOrgans()) {
-			double startPointDistance = bodyPart.getStartPoint().minus(centerOfMass).getLength();
-			double endPointDistance = bodyPart.getEndPoint().minus(centerOfMass).getLength();
-			double distance = Math.max(startPointDistance, endPointDistance);
+			double distance = BodyKernel.getDistanceFromFarthestEnd(bodyPart, centerOfMass);
 			if (distance > result)
 				result = distance;
 		}
@@ -0,0 +1,133 @@
+package org.nusco.narjillos.creature.body;
+
+import java.util.List;
+
+import org.nusco.narjillos.core.geometry.Segment;
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.physics.RotationsPhysicsEngine;
+import org.nusco.narjillos.core.physics.TranslationsPhysicsEngine;
+
+/**
+ * The scratch space of Body.tick(). It keeps the state of the organs at the
+ * beginning of the tick in parallel arrays, one slot per organ, in the same
+ * order as Body.getOrgans() (children first). So the tick can compare the
+ * organs before and after they move by going through the arrays, instead of
+ * looking them up in maps and boxing their angles.
+ * <p>
+ * The arrays and the physics engines are allocated once per body, and reused
+ * at each tick. Only the thread that ticks the body should touch them.
+ * <p>
+ * The kernel also fuses the loops of the tick: each method goes through the
+ * organs once, and calculates everything that the tick needs at that point
+ * (for example, the rotations and the radius of the body in the same pass).
+ * The results are the same as separate loops, down to the last bit, because
+ * each sum still adds up the organs in the same order.
+ * <p>
+ * The organs themselves still keep their geometry in Vectors and Segments,
+ * because those are part of the saved experiments. Segments are immutable,
+ * and the organs replace them when they move - so keeping a reference to a
+ * Segment is as good as a copy of it.
+ */
+class BodyKernel {
+
+	static final double MIN_RADIUS = 1;
+
+	private final Organ head;
+
+	private final Organ[] organs;
+
+	private final double[] initialAngles;
+
+	private final Segment[] initialSegments;
+
+	private final double[] masses;
+
+	private final RotationsPhysicsEngine rotationsPhysicsEngine = new RotationsPhysicsEngine(0, 0, Vector.ZERO);
+
+	private final TranslationsPhysicsEngine translationsPhysicsEngine = new TranslationsPhysicsEngine(0);
+
+	BodyKernel(Organ head, List<ConnectedOrgan> organs) {
+		this.head = head;
+		this.organs = organs.toArray(new Organ[organs.size()]);
+		initialAngles = new double[this.organs.length];
+		initialSegments = new Segment[this.organs.length];
+		masses = new double[this.organs.length];
+		for (int i = 0; i < this.organs.length; i++)
+			masses[i] = this.organs[i].getMass();
+	}
+
+	/**
+	 * Remembers the angles and positions of the organs before they move, and
+	 * returns their center of mass (see Body.getCenterOfMass()).
+	 */
+	Vector saveInitialState(double bodyMass) {
+		double totalX = 0;
+		double totalY = 0;
+		for (int i = 0; i < organs.length; i++) {
+			Organ organ = organs[i];
+			initialAngles[i] = organ.getAbsoluteAngle();
+			initialSegments[i] = organ.toSegment();
+
+			Vector centerOfMass = organ.getCenterOfMass();
+			double organMass = organ.getMass();
+			totalX += centerOfMass.x * organMass;
+			totalY += centerOfMass.y * organMass;
+		}
+
+		if (bodyMass <= 0)
+			return head.getStartPoint();
+		return Vector.cartesian(totalX / bodyMass, totalY / bodyMass);
+	}
+
+	/**
+	 * Updates the mass of an organ. Masses only change while the body is
+	 * growing.
+	 */
+	void setMass(int organIndex, double mass) {
+		masses[organIndex] = mass;
+	}
+
+	/**
+	 * Returns a physics engine loaded with the rotations of the organs since
+	 * saveInitialState(). Also calculates the radius of the body around the
+	 * center of mass (see Body.getRadius()).
+	 */
+	RotationsPhysicsEngine calculateRotations(double bodyMass, Vector centerOfMass) {
+		RotationsPhysicsEngine result = rotationsPhysicsEngine;
+		result.reset(bodyMass, 0, centerOfMass);
+		double radius = MIN_RADIUS;
+		for (int i = 0; i < organs.length; i++) {
+			Organ organ = organs[i];
+			result.registerMovement(initialAngles[i], organ.getAbsoluteAngle(), organ.toSegment(), masses[i]);
+			double distance = getDistanceFromFarthestEnd(organ, centerOfMass);
+			if (distance > radius)
+				radius = distance;
+		}
+		result.setBodyRadius(radius);
+		return result;
+	}
+
+	/**
+	 * Returns a physics engine loaded with the translations of the organs
+	 * since saveInitialState().
+	 */
+	TranslationsPhysicsEngine calculateTranslations(double bodyMass) {
+		TranslationsPhysicsEngine result = translationsPhysicsEngine;
+		result.reset(bodyMass);
+		for (int i = 0; i < organs.length; i++)
+			result.registerMovement(initialSegments[i], organs[i].toSegment(), masses[i]);
+		return result;
+	}
+
+	static double getDistanceFromFarthestEnd(Organ organ, Vector point) {
+		double startPointDistance = getDistance(organ.getStartPoint(), point);
+		double endPointDistance = getDistance(organ.getEndPoint(), point);
+		return Math.max(startPointDistance, endPointDistance);
+	}
+
+	private static double getDistance(Vector point1, Vector point2) {
+		double x = point1.x - point2.x;
+		double y = point1.y - point2.y;
+		return Math.sqrt(x * x + y * y);
+	}
+}
@@ -75,10 +75,15 @@ public class Head extends MovingOrgan {
 
 	@Override
 	public void translateBy(Vector translation) {
-		this.startPoint = getStartPoint().plus(translation);
+		moveStartPointBy(translation);
 		super.translateBy(translation);
 	}
 
+	// Moves the head, without updating the organs.
+	void moveStartPointBy(Vector translation) {
+		this.startPoint = getStartPoint().plus(translation);
+	}
+
 	@Override
 	protected Vector calculateStartPoint() {
 		return startPoint;
@@ -37,20 +37,21 @@ public abstract class Organ implements Bounded {
 	// Caching - ugly, but has huge performance benefits.
 	// The following fields will be updated at start, and
 	// then in the update*() methods.
-	// They're all volatile, to avoid too much synchronization.
-	private volatile double cachedAbsoluteAngle;
+	// Only the thread that moves the organ should read them. Other
+	// threads can read an OrganSnapshot instead.
+	private double cachedAbsoluteAngle;
 
-	private volatile Vector cachedStartPoint;
+	private Vector cachedStartPoint;
 
-	private volatile Vector cachedVector;
+	private Vector cachedVector;
 
-	private volatile Vector cachedEndPoint;
+	private Vector cachedEndPoint;
 
-	private volatile double cachedMass;
+	private double cachedMass;
 
-	private volatile Vector cachedCenterOfMass;
+	private Vector cachedCenterOfMass;
 
-	private volatile Segment cachedSegment;
+	private Segment cachedSegment;
 
 	public Organ(int adultLength, int adultThickness, Fiber fiber) {
 		this.adultLength = adultLength;
@@ -73,13 +74,8 @@ public abstract class Organ implements Bounded {
 	// Must be called to update the state of the organ. It will call into
 	// calculateAbsoluteAngle() and calculateStartPoint().
 	public final void update() {
-		cachedAbsoluteAngle = calculateAbsoluteAngle();
-		cachedVector = calculateVector();
-		cachedStartPoint = calculateStartPoint();
-		cachedEndPoint = calculateEndPoint();
-		cachedSegment = calculateSegment();
+		updateGeometry();
 		cachedMass = calculateMass();
-		cachedCenterOfMass = calculateCenterOfMass();
 	}
 
 	public Segment toSegment() {
@@ -95,6 +91,17 @@ public abstract class Organ implements Bounded {
 		return thickness;
 	}
 
+	// Like update(), but it doesn't update the mass. Only call it
+	// on fully grown organs, that cannot change their mass anymore.
+	final void updateGeometry() {
+		cachedAbsoluteAngle = calculateAbsoluteAngle();
+		cachedVector = calculateVector();
+		cachedStartPoint = calculateStartPoint();
+		cachedEndPoint = calculateEndPoint();
+		cachedSegment = calculateSegment();
+		cachedCenterOfMass = calculateCenterOfMass();
+	}
+
 	// Like update() but much cheaper. It can only be called after pure
 	// translations. Don't call after a rotation, because it won't update
 	// angles.
@@ -168,7 +175,7 @@ public abstract class Organ implements Bounded {
 
 	protected abstract double calculateAbsoluteAngle();
 
-	private boolean isFullyGrown() {
+	boolean isFullyGrown() {
 		return getLength() >= adultLength && getThickness() >= adultThickness;
 	}
 
@@ -0,0 +1,55 @@
+package org.nusco.narjillos.creature.body;
+
+import org.nusco.narjillos.core.geometry.Segment;
+import org.nusco.narjillos.core.geometry.Vector;
+
+/**
+ * An immutable copy of the parts of an organ that change while the organ
+ * moves and grows. Threads that don't move the organ (like the views) should
+ * read a snapshot instead of the organ itself, so they never see the organ
+ * halfway through an update.
+ */
+public class OrganSnapshot {
+
+	private final Segment segment;
+
+	private final double absoluteAngle;
+
+	private final double length;
+
+	private final double thickness;
+
+	private final Vector centerOfMass;
+
+	OrganSnapshot(Organ organ) {
+		segment = organ.toSegment();
+		absoluteAngle = organ.getAbsoluteAngle();
+		length = organ.getLength();
+		thickness = organ.getThickness();
+		centerOfMass = organ.getCenterOfMass();
+	}
+
+	public Segment toSegment() {
+		return segment;
+	}
+
+	public Vector getStartPoint() {
+		return segment.getStartPoint();
+	}
+
+	public double getAbsoluteAngle() {
+		return absoluteAngle;
+	}
+
+	public double getLength() {
+		return length;
+	}
+
+	public double getThickness() {
+		return thickness;
+	}
+
+	public Vector getCenterOfMass() {
+		return centerOfMass;
+	}
+}
@@ -0,0 +1,145 @@
+package org.nusco.narjillos.experiment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.nusco.narjillos.creature.Egg;
+import org.nusco.narjillos.experiment.environment.Ecosystem;
+import org.nusco.narjillos.experiment.environment.ExecutionStrategy;
+import org.nusco.narjillos.experiment.environment.TickExecutor;
+import org.nusco.narjillos.genomics.DNALog;
+
+/**
+ * Runs a few experiments side by side in the same process (the "islands"),
+ * and moves some eggs from each island to the next one every now and then.
+ * <p>
+ * All the islands tick on the same pool of tick workers, so even small
+ * islands can keep all the cores busy. Each island also has a thread of its
+ * own, that owns the island's NumGen and runs all the code that uses it.
+ * <p>
+ * The islands tick at the same time, but they don't touch each other during
+ * a tick. Eggs migrate between ticks, at fixed intervals, always from an
+ * island to the next one in a ring. So the archipelago is as deterministic
+ * as a single experiment.
+ */
+public class Archipelago {
+
+	private final TickExecutor tickExecutor;
+
+	private final List<ExecutorService> islandThreads = new ArrayList<>();
+
+	private final List<Experiment> islands;
+
+	private final int migrationInterval;
+
+	private final int migrantsPerIsland;
+
+	private long ticks = 0;
+
+	private boolean isTerminated = false;
+
+	public Archipelago(long[] seeds, long islandSize, String version, Supplier<DNALog> dnaLogs, int migrationInterval, int migrantsPerIsland) {
+		if (migrationInterval < 1)
+			throw new IllegalArgumentException("The migration interval must be at least one tick");
+
+		this.migrationInterval = migrationInterval;
+		this.migrantsPerIsland = migrantsPerIsland;
+
+		tickExecutor = TickExecutor.create(ExecutionStrategy.FORK_JOIN);
+
+		List<DNALog> islandDnaLogs = new ArrayList<>();
+		for (int i = 0; i < seeds.length; i++) {
+			String threadName = "island-" + (i + 1);
+			islandThreads.add(Executors.newSingleThreadExecutor(runnable -> {
+				Thread result = new Thread(runnable, threadName);
+				result.setDaemon(true);
+				return result;
+			}));
+			islandDnaLogs.add(dnaLogs.get());
+		}
+
+		// Create each experiment in its island's thread, so that
+		// its NumGen belongs to that thread
+		islands = onEachIsland(i -> {
+			Experiment experiment = new Experiment(seeds[i], new Ecosystem(islandSize, tickExecutor), version);
+			experiment.setDnaLog(islandDnaLogs.get(i));
+			experiment.populate();
+			return experiment;
+		});
+	}
+
+	public List<Experiment> getIslands() {
+		return Collections.unmodifiableList(islands);
+	}
+
+	public long getTotalTicks() {
+		return ticks;
+	}
+
+	/**
+	 * Returns false if the archipelago was terminated, and doesn't tick
+	 * anymore.
+	 */
+	public synchronized boolean tick() {
+		if (isTerminated)
+			return false;
+
+		onEachIsland(i -> {
+			islands.get(i).tick();
+			return null;
+		});
+
+		ticks++;
+		if (ticks % migrationInterval == 0)
+			migrate();
+		return true;
+	}
+
+	// Waits for the current tick to end.
+	public synchronized List<String> terminate() {
+		isTerminated = true;
+		List<String> result = new ArrayList<>();
+		islands.forEach(island -> result.add(island.terminate()));
+
+		islandThreads.forEach(ExecutorService::shutdown);
+		tickExecutor.shutdown();
+		return result;
+	}
+
+	private void migrate() {
+		List<List<Egg>> emigrants = onEachIsland(i -> islands.get(i).emigrateEggs(migrantsPerIsland));
+
+		int numberOfIslands = islands.size();
+		onEachIsland(i -> {
+			islands.get(i).immigrateEggs(emigrants.get((i + numberOfIslands - 1) % numberOfIslands));
+			return null;
+		});
+	}
+
+	// Runs the operation on all the islands at the same time, each in its
+	// own thread. Returns the results in the order of the islands.
+	private <T> List<T> onEachIsland(IntFunction<T> operation) {
+		List<Future<T>> futures = new ArrayList<>();
+		for (int i = 0; i < islandThreads.size(); i++) {
+			int island = i;
+			futures.add(islandThreads.get(i).submit(() -> operation.apply(island)));
+		}
+
+		List<T> result = new ArrayList<>();
+		for (Future<T> future : futures) {
+			try {
+				result.add(future.get());
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,159 @@
+package org.nusco.narjillos.experiment;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs an experiment's bookkeeping in the background: the work that records
+ * what happened during a tick, but doesn't change what happens next. That's
+ * writing to the DNA log and saving history entries. So the next tick can
+ * start while the bookkeeping of the previous tick is still going on.
+ * <p>
+ * The listeners of the ecosystem are not part of the bookkeeping: they hear
+ * about things coming and going in the thread that ticks the ecosystem, as
+ * soon as it happens.
+ * <p>
+ * The tasks of a bookkeeper run one at a time, in the order they come in.
+ * Each task must carry all the information it needs, because the world will
+ * have moved on by the time it runs. All the bookkeepers share a small pool
+ * of threads, so running many experiments in the same process (like the
+ * islands of an Archipelago) doesn't start a thread for each of them.
+ * <p>
+ * If the bookkeeping falls too far behind, then execute() waits until it
+ * catches up a bit. If a task fails, then the next call to execute() or
+ * await() throws the exception.
+ */
+class Bookkeeper implements Executor {
+
+	private static final int MAX_PENDING_TASKS = 100_000;
+
+	// Bookkeeping is mostly waiting for the disk, so a couple of threads
+	// are enough for any number of experiments.
+	private static final int MAX_THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+
+	// After this many tasks in a row, a bookkeeper gives its thread to the
+	// other bookkeepers, so a busy experiment cannot starve the others.
+	private static final int TASKS_PER_TURN = 1_000;
+
+	private static final AtomicInteger threadCounter = new AtomicInteger(1);
+
+	private static final ExecutorService sharedThreads = Executors.newFixedThreadPool(MAX_THREADS, runnable -> {
+		Thread result = new Thread(runnable, "bookkeeper-" + threadCounter.getAndIncrement());
+		result.setDaemon(true);
+		return result;
+	});
+
+	private final Semaphore pendingTasks = new Semaphore(MAX_PENDING_TASKS);
+
+	// Guards all the fields below.
+	private final Object lock = new Object();
+
+	private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+	private boolean isScheduled = false;
+
+	private boolean isTerminated = false;
+
+	private long numberOfSubmittedTasks = 0;
+
+	private long numberOfCompletedTasks = 0;
+
+	private volatile RuntimeException failure = null;
+
+	@Override
+	public void execute(Runnable task) {
+		checkForFailures();
+		pendingTasks.acquireUninterruptibly();
+		Runnable bookkeeping = () -> {
+			try {
+				if (failure == null)
+					task.run();
+			} catch (RuntimeException e) {
+				failure = e;
+			} finally {
+				pendingTasks.release();
+			}
+		};
+
+		synchronized (lock) {
+			if (!isTerminated) {
+				tasks.add(bookkeeping);
+				numberOfSubmittedTasks++;
+				if (!isScheduled) {
+					isScheduled = true;
+					sharedThreads.execute(this::runTurn);
+				}
+				return;
+			}
+		}
+
+		// Terminated while the experiment was still ticking.
+		// The queue is empty by now, so just do it here.
+		bookkeeping.run();
+		checkForFailures();
+	}
+
+	/**
+	 * Waits until all the tasks so far are done.
+	 */
+	void await() {
+		synchronized (lock) {
+			long target = numberOfSubmittedTasks;
+			while (numberOfCompletedTasks < target) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}
+		checkForFailures();
+	}
+
+	/**
+	 * Waits until all the tasks so far are done. From then on, the tasks run
+	 * in the thread that calls execute().
+	 */
+	void terminate() {
+		try {
+			await();
+		} finally {
+			synchronized (lock) {
+				isTerminated = true;
+			}
+		}
+	}
+
+	private void runTurn() {
+		for (int i = 0; i < TASKS_PER_TURN; i++) {
+			Runnable task;
+			synchronized (lock) {
+				task = tasks.poll();
+				if (task == null) {
+					isScheduled = false;
+					return;
+				}
+			}
+
+			task.run();
+
+			synchronized (lock) {
+				numberOfCompletedTasks++;
+				lock.notifyAll();
+			}
+		}
+
+		// Back in the pool's queue, behind the other bookkeepers
+		sharedThreads.execute(this::runTurn);
+	}
+
+	private void checkForFailures() {
+		if (failure != null)
+			throw new RuntimeException("Bookkeeping failed", failure);
+	}
+}
@@ -1,11 +1,15 @@
 package org.nusco.narjillos.experiment;
 
+import java.util.List;
+
 import org.nusco.narjillos.core.utilities.Chronometer;
 import org.nusco.narjillos.core.configuration.Configuration;
+import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.utilities.NumGen;
 import org.nusco.narjillos.creature.Egg;
 import org.nusco.narjillos.creature.Narjillo;
 import org.nusco.narjillos.experiment.environment.Ecosystem;
+import org.nusco.narjillos.genomics.DNA;
 import org.nusco.narjillos.genomics.DNALog;
 
 public class Experiment {
@@ -24,6 +28,8 @@ public class Experiment {
 
 	private transient HistoryLog historyLog;
 
+	private transient Bookkeeper bookkeeper;
+
 	private transient long lastRegisteredRunningTime;
 
 	public Experiment(long seed, Ecosystem ecosystem, String version) {
@@ -67,6 +73,7 @@ public class Experiment {
 
 	public String terminate() {
 		ecosystem.terminate();
+		getBookkeeper().terminate();
 
 		updateTotalRunningTime();
 		String result = toString() + " interrupted at " + getTotalRunningTimeInSeconds() + " seconds, "
@@ -79,7 +86,18 @@ public class Experiment {
 	// TODO: move to the dish?
 	public void saveHistoryEntry() {
 		updateTotalRunningTime();
-		historyLog.saveEntry(this);
+
+		// Take the entry now: the log saves it later
+		historyLog.saveEntry(new ExperimentHistoryEntry(this));
+	}
+
+	/**
+	 * Waits until the DNA log and the history log are up to date with the
+	 * latest tick. (They catch up in the background while the experiment
+	 * keeps ticking).
+	 */
+	public void awaitBookkeeping() {
+		getBookkeeper().await();
 	}
 
 	public boolean lifeIsExtinct() {
@@ -92,7 +110,7 @@ public class Experiment {
 	}
 
 	public final void setDnaLog(DNALog dnaLog) {
-		this.dnaLog = dnaLog;
+		this.dnaLog = new PipelinedDNALog(dnaLog, getBookkeeper());
 	}
 
 	public final void populate(String dna) {
@@ -103,8 +121,43 @@ public class Experiment {
 		ecosystem.populate(dnaLog, numGen);
 	}
 
+	/**
+	 * Takes up to the given number of unhatched eggs out of the ecosystem, so
+	 * that they can move to another experiment (see immigrateEggs()). The
+	 * eggs count as dead in this experiment's DNA log.
+	 */
+	public List<Egg> emigrateEggs(int maxNumberOfEggs) {
+		List<Egg> result = ecosystem.removeUnhatchedEggs(maxNumberOfEggs);
+		for (Egg egg : result)
+			dnaLog.markAsDead(egg.getDNA().getId());
+		return result;
+	}
+
+	/**
+	 * Lays copies of eggs that come from another experiment in random places
+	 * of the ecosystem. The DNA of the eggs gets an id from this experiment,
+	 * and no parent (because the parent lives in another DNA log).
+	 */
+	public void immigrateEggs(List<Egg> eggs) {
+		for (Egg egg : eggs) {
+			DNA dna = new DNA(numGen.nextSerial(), egg.getDNA().getGenes(), DNA.NO_PARENT);
+			dnaLog.save(dna);
+
+			Vector position = Vector.cartesian(numGen.nextDouble() * ecosystem.getSize(), numGen.nextDouble() * ecosystem.getSize());
+			ecosystem.insert(new Egg(dna, position, Vector.ZERO, egg.getEnergy().getValue(), numGen));
+		}
+	}
+
 	public void setHistoryLog(HistoryLog historyLog) {
-		this.historyLog = historyLog;
+		this.historyLog = new PipelinedHistoryLog(historyLog, getBookkeeper());
+	}
+
+	/**
+	 * The history of the experiment. Reading it waits for the entries that
+	 * are still being saved.
+	 */
+	public HistoryLog getHistoryLog() {
+		return historyLog;
 	}
 
 	@Override
@@ -112,6 +165,14 @@ public class Experiment {
 		return "Experiment " + getId();
 	}
 
+	// Experiments that come from JSON skip the constructor, so
+	// the bookkeeper is created on demand.
+	private synchronized Bookkeeper getBookkeeper() {
+		if (bookkeeper == null)
+			bookkeeper = new Bookkeeper();
+		return bookkeeper;
+	}
+
 	private void updateTotalRunningTime() {
 		long updateTime = System.currentTimeMillis();
 		totalRunningTime = totalRunningTime + (updateTime - lastRegisteredRunningTime);
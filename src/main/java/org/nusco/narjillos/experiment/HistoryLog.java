@@ -11,5 +11,9 @@ public interface HistoryLog {
 
 	ExperimentHistoryEntry getLatestEntry();
 
-	void saveEntry(Experiment experiment);
+	void saveEntry(ExperimentHistoryEntry entry);
+
+	default void saveEntry(Experiment experiment) {
+		saveEntry(new ExperimentHistoryEntry(experiment));
+	}
 }
\ No newline at end of file
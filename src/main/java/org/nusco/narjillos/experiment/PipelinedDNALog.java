@@ -0,0 +1,60 @@
+package org.nusco.narjillos.experiment;
+
+import java.util.List;
+
+import org.nusco.narjillos.genomics.DNA;
+import org.nusco.narjillos.genomics.DNALog;
+
+/**
+ * A DNALog that writes to another DNALog on a Bookkeeper, so that the
+ * ticks don't wait for the writes. Reads wait until all the previous writes
+ * are done, so they always see an up-to-date log.
+ * <p>
+ * The simulation never reads the DNA log, so this doesn't change the results
+ * of the experiment.
+ */
+class PipelinedDNALog implements DNALog {
+
+	private final DNALog target;
+
+	private final Bookkeeper bookkeeper;
+
+	PipelinedDNALog(DNALog target, Bookkeeper bookkeeper) {
+		this.target = target;
+		this.bookkeeper = bookkeeper;
+	}
+
+	@Override
+	public void save(DNA dna) {
+		bookkeeper.execute(() -> target.save(dna));
+	}
+
+	@Override
+	public DNA getDna(long id) {
+		bookkeeper.await();
+		return target.getDna(id);
+	}
+
+	@Override
+	public void markAsDead(long id) {
+		bookkeeper.execute(() -> target.markAsDead(id));
+	}
+
+	@Override
+	public List<DNA> getAllDna() {
+		bookkeeper.await();
+		return target.getAllDna();
+	}
+
+	@Override
+	public List<DNA> getLiveDna() {
+		bookkeeper.await();
+		return target.getLiveDna();
+	}
+
+	@Override
+	public void delete() {
+		bookkeeper.await();
+		target.delete();
+	}
+}
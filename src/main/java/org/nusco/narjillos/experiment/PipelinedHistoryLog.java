@@ -0,0 +1,40 @@
+package org.nusco.narjillos.experiment;
+
+import java.util.List;
+
+/**
+ * A HistoryLog that writes to another HistoryLog on a Bookkeeper, so that
+ * the ticks don't wait for the writes. Reads wait until all the previous
+ * writes are done, so they always see an up-to-date log.
+ * <p>
+ * The simulation never reads the history, so this doesn't change the
+ * results of the experiment.
+ */
+class PipelinedHistoryLog implements HistoryLog {
+
+	private final HistoryLog target;
+
+	private final Bookkeeper bookkeeper;
+
+	PipelinedHistoryLog(HistoryLog target, Bookkeeper bookkeeper) {
+		this.target = target;
+		this.bookkeeper = bookkeeper;
+	}
+
+	@Override
+	public List<ExperimentHistoryEntry> getEntries() {
+		bookkeeper.await();
+		return target.getEntries();
+	}
+
+	@Override
+	public ExperimentHistoryEntry getLatestEntry() {
+		bookkeeper.await();
+		return target.getLatestEntry();
+	}
+
+	@Override
+	public void saveEntry(ExperimentHistoryEntry entry) {
+		bookkeeper.execute(() -> target.saveEntry(entry));
+	}
+}
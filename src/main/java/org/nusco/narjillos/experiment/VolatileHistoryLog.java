@@ -16,6 +16,6 @@ public class VolatileHistoryLog implements HistoryLog {
 	}
 
 	@Override
-	public void saveEntry(Experiment experiment) {
+	public void saveEntry(ExperimentHistoryEntry entry) {
 	}
 }
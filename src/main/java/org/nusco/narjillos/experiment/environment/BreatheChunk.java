@@ -0,0 +1,46 @@
+package org.nusco.narjillos.experiment.environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.nusco.narjillos.core.chemistry.Conversions;
+import org.nusco.narjillos.creature.Narjillo;
+
+/**
+ * The BreatheTask for executors that can't split tasks as they go: lets a
+ * fixed range of narjillos breathe, and counts their conversions. The caller
+ * merges the counts of all the chunks in order.
+ */
+class BreatheChunk implements Callable<Conversions> {
+
+	private final Narjillo[] narjillos;
+
+	private final double[] densities;
+
+	private final double breathingPowerPerNarjillo;
+
+	private final int from;
+
+	private final int to;
+
+	private BreatheChunk(Narjillo[] narjillos, double[] densities, double breathingPowerPerNarjillo, int from, int to) {
+		this.narjillos = narjillos;
+		this.densities = densities;
+		this.breathingPowerPerNarjillo = breathingPowerPerNarjillo;
+		this.from = from;
+		this.to = to;
+	}
+
+	static List<BreatheChunk> createChunks(Narjillo[] narjillos, double[] densities, double breathingPowerPerNarjillo) {
+		List<BreatheChunk> result = new ArrayList<>();
+		for (int from = 0; from < narjillos.length; from += BreatheTask.CHUNK_SIZE)
+			result.add(new BreatheChunk(narjillos, densities, breathingPowerPerNarjillo, from, Math.min(from + BreatheTask.CHUNK_SIZE, narjillos.length)));
+		return result;
+	}
+
+	@Override
+	public Conversions call() {
+		return BreatheTask.breatheRange(narjillos, densities, breathingPowerPerNarjillo, from, to);
+	}
+}
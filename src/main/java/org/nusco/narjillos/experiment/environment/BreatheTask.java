@@ -0,0 +1,76 @@
+package org.nusco.narjillos.experiment.environment;
+
+import java.util.concurrent.RecursiveTask;
+
+import org.nusco.narjillos.core.chemistry.Conversions;
+import org.nusco.narjillos.core.chemistry.Element;
+import org.nusco.narjillos.creature.Narjillo;
+
+/**
+ * Lets a range of narjillos breathe on a ForkJoinPool. Each narjillo gets
+ * energy from the density of the element that it breathes, and the task
+ * counts the conversions of elements that the narjillos make.
+ * <p>
+ * Each narjillo only changes its own energy, and the conversions are just
+ * counted - so the result is the same no matter which worker handles which
+ * narjillo. The caller applies the conversions to the atmosphere once all
+ * the narjillos are done.
+ */
+class BreatheTask extends RecursiveTask<Conversions> {
+
+	// Breathing is cheap, so it's not worth splitting small ranges.
+	static final int CHUNK_SIZE = 256;
+
+	private final Narjillo[] narjillos;
+
+	private final double[] densities;
+
+	private final double breathingPowerPerNarjillo;
+
+	private final int from;
+
+	private final int to;
+
+	BreatheTask(Narjillo[] narjillos, double[] densities, double breathingPowerPerNarjillo) {
+		this(narjillos, densities, breathingPowerPerNarjillo, 0, narjillos.length);
+	}
+
+	private BreatheTask(Narjillo[] narjillos, double[] densities, double breathingPowerPerNarjillo, int from, int to) {
+		this.narjillos = narjillos;
+		this.densities = densities;
+		this.breathingPowerPerNarjillo = breathingPowerPerNarjillo;
+		this.from = from;
+		this.to = to;
+	}
+
+	@Override
+	protected Conversions compute() {
+		if (to - from <= CHUNK_SIZE)
+			return breatheRange(narjillos, densities, breathingPowerPerNarjillo, from, to);
+
+		int middle = (from + to) >>> 1;
+		BreatheTask secondHalf = new BreatheTask(narjillos, densities, breathingPowerPerNarjillo, middle, to);
+		secondHalf.fork();
+		Conversions result = new BreatheTask(narjillos, densities, breathingPowerPerNarjillo, from, middle).compute();
+		result.addAll(secondHalf.join());
+		return result;
+	}
+
+	/**
+	 * Lets the narjillos from index "from" (included) to index "to"
+	 * (excluded) breathe in the current thread, and returns their
+	 * conversions. Both the tasks and the chunks (see BreatheChunk) end up
+	 * here.
+	 */
+	static Conversions breatheRange(Narjillo[] narjillos, double[] densities, double breathingPowerPerNarjillo, int from, int to) {
+		Conversions result = new Conversions();
+		for (int i = from; i < to; i++) {
+			Narjillo narjillo = narjillos[i];
+			Element breathedElement = narjillo.getBreathedElement();
+			double energyObtainedByBreathing = densities[breathedElement.ordinal()] * breathingPowerPerNarjillo;
+			narjillo.getEnergy().increaseBy(energyObtainedByBreathing);
+			result.add(breathedElement, narjillo.getByproduct());
+		}
+		return result;
+	}
+}
@@ -1,30 +1,23 @@
 package org.nusco.narjillos.experiment.environment;
 
 import org.nusco.narjillos.core.chemistry.Atmosphere;
+import org.nusco.narjillos.core.chemistry.Conversions;
 import org.nusco.narjillos.core.configuration.Configuration;
-import org.nusco.narjillos.core.geometry.Segment;
 import org.nusco.narjillos.core.geometry.Vector;
-import org.nusco.narjillos.core.physics.Viscosity;
+import org.nusco.narjillos.core.things.Collisions;
 import org.nusco.narjillos.core.things.Space;
 import org.nusco.narjillos.core.things.Thing;
 import org.nusco.narjillos.core.utilities.NumGen;
+import org.nusco.narjillos.core.utilities.SplitMixStream;
 import org.nusco.narjillos.creature.Egg;
 import org.nusco.narjillos.creature.Narjillo;
 import org.nusco.narjillos.genomics.DNA;
 import org.nusco.narjillos.genomics.DNALog;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -32,18 +25,24 @@ import java.util.stream.Collectors;
  */
 public class Ecosystem extends Environment {
 
-	public static int numberOfBackgroundThreads = Runtime.getRuntime().availableProcessors();
+	// An ecosystem that owns its executor only creates it on the first
+	// tick, so changing the strategy before then costs nothing.
+	private TickExecutor tickExecutor;
 
-	private final ExecutorService executorService;
+	// Null if the executor is shared with other ecosystems.
+	private ExecutionStrategy executionStrategy;
 
-	/**
-	 * Counter used by the ThreadFactory to name threads.
-	 */
-	// TODO: can probably be put more locally to the closure that uses it
-	private final AtomicInteger tickWorkerCounter = new AtomicInteger(1);
+	private volatile boolean isShuttingDown = false;
+
+	// The number of tiles along each edge. 1 means no tiles.
+	private int tilesPerEdge = 1;
+
+	private final WorkerUtilization workerUtilization = new WorkerUtilization();
 
 	private final Space space = new Space();
 
+	private final int foodTypeId = space.getTypeId(FoodPellet.LABEL);
+
 	private Atmosphere atmosphere = new Atmosphere();
 
 	private final ThingsCounter thingsCounter = new ThingsCounter();
@@ -52,24 +51,54 @@ public class Ecosystem extends Environment {
 
 	private final FoodClock foodClock;
 
+	private final FoodTargets foodTargets;
+
+	/**
+	 * Creates an ecosystem that ticks with the execution strategy in the
+	 * configuration. You can change the strategy later with
+	 * setExecutionStrategy().
+	 */
+	public Ecosystem(final long size) {
+		this(size, ExecutionStrategy.fromName(Configuration.ECOSYSTEM_EXECUTION_STRATEGY));
+	}
+
+	/**
+	 * Creates an ecosystem that ticks with the given execution strategy.
+	 */
+	public Ecosystem(final long size, ExecutionStrategy executionStrategy) {
+		this(size, null, executionStrategy);
+	}
+
+	/**
+	 * The sizeCheck used to make sure that nothing could move farther than
+	 * a cell of Space in a single tick, because collisions on longer
+	 * movements went undetected. Now Space detects them, so the check is
+	 * gone and sizeCheck is ignored.
+	 *
+	 * @deprecated Use Ecosystem(long) instead.
+	 */
+	@Deprecated
 	public Ecosystem(final long size, boolean sizeCheck) {
+		this(size);
+	}
+
+	/**
+	 * Creates an ecosystem that ticks on an executor shared with other
+	 * ecosystems. Terminating the ecosystem doesn't shut down the executor.
+	 */
+	public Ecosystem(final long size, TickExecutor tickExecutor) {
+		this(size, tickExecutor, null);
+	}
+
+	private Ecosystem(final long size, TickExecutor tickExecutor, ExecutionStrategy executionStrategy) {
 		super(size);
 
-		ThreadFactory tickWorkerFactory = (Runnable r) -> {
-			Thread result = new Thread(r, "tick-worker-" + tickWorkerCounter.getAndIncrement());
-			result.setPriority(Thread.currentThread().getPriority());
-			return result;
-		};
-		executorService = Executors.newFixedThreadPool(numberOfBackgroundThreads, tickWorkerFactory);
+		this.tickExecutor = tickExecutor;
+		this.executionStrategy = executionStrategy;
 
 		foodClock = new FoodClock(getNumberOf1000SquarePointsBlocks());
 		this.center = Vector.cartesian(size, size).by(0.5);
-
-		// TODO: fix magic number
-		// check that things cannot move faster than a space area in a single
-		// tick (which would make collision detection unreliable)
-		if (sizeCheck && 400 < Viscosity.getMaxVelocity())
-			throw new RuntimeException("Bug: Area size smaller than max velocity");
+		foodTargets = new FoodTargets(space, foodTypeId, center);
 	}
 
 	public Atmosphere getAtmosphere() {
@@ -94,9 +123,41 @@ public class Ecosystem extends Environment {
 	public void insert(Thing thing) {
 		space.add(thing);
 		thingsCounter.add(thing.getLabel());
+
+		if (thing instanceof FoodPellet)
+			foodTargets.addFood(thing);
+		else if (thing instanceof Narjillo)
+			foodTargets.addNarjillo((Narjillo) thing);
+
 		notifyThingAdded(thing);
 	}
 
+	/**
+	 * Takes up to the given number of unhatched eggs out of the ecosystem,
+	 * so that they can move somewhere else. The eggs are picked in the
+	 * ecosystem's order, so the choice is deterministic.
+	 */
+	public List<Egg> removeUnhatchedEggs(int maxNumberOfEggs) {
+		List<Egg> result = getAll(Egg.LABEL).stream()
+			.map(thing -> (Egg) thing)
+			.filter(egg -> !egg.getHatchedNarjillo().isPresent())
+			.limit(maxNumberOfEggs)
+			.collect(Collectors.toList());
+		result.forEach(this::remove);
+		return result;
+	}
+
+	private void remove(Thing thing) {
+		notifyThingRemoved(thing);
+		space.remove(thing);
+		thingsCounter.remove(thing.getLabel());
+
+		if (thing instanceof FoodPellet)
+			foodTargets.removeFood(thing);
+		else if (thing instanceof Narjillo)
+			foodTargets.removeNarjillo((Narjillo) thing);
+	}
+
 	public final Egg spawnEgg(DNA genes, Vector position, NumGen numGen) {
 		Egg egg = new Egg(genes, position, Vector.ZERO, Configuration.CREATURE_SEED_ENERGY, numGen);
 		insert(egg);
@@ -122,24 +183,50 @@ public class Ecosystem extends Environment {
 			spawnEgg(createRandomDna(dnaLog, numGen), randomPosition(getSize(), numGen), numGen);
 	}
 
+	/**
+	 * Switches to a new execution strategy. The results of the simulation
+	 * don't depend on the strategy, so you can switch at any time. If the
+	 * ecosystem was sharing an executor with other ecosystems, it stops
+	 * sharing it.
+	 */
+	public synchronized void setExecutionStrategy(ExecutionStrategy executionStrategy) {
+		shutDownOwnTickExecutor();
+		tickExecutor = null;
+		this.executionStrategy = executionStrategy;
+	}
+
 	public synchronized void terminate() {
-		executorService.shutdown();
-		try {
-			executorService.awaitTermination(10, TimeUnit.SECONDS);
-		} catch (InterruptedException e) {
-			throw new RuntimeException(e);
-		}
+		isShuttingDown = true;
+		shutDownOwnTickExecutor();
 	}
 
+	/**
+	 * Splits the ecosystem into a grid of tilesPerEdge x tilesPerEdge tiles,
+	 * that tick in parallel (see TiledTick). This is useful for very big
+	 * ecosystems. Tiles don't change the results of the simulation, only
+	 * the way the work is scheduled. 1 means no tiles.
+	 */
+	public void setTilesPerEdge(int tilesPerEdge) {
+		if (tilesPerEdge < 1)
+			throw new IllegalArgumentException("An ecosystem needs at least one tile per edge");
+		this.tilesPerEdge = tilesPerEdge;
+	}
+
+	public WorkerUtilization getWorkerUtilization() {
+		return workerUtilization;
+	}
+
+	/**
+	 * Points every narjillo at the closest food. The targets are kept up to
+	 * date as food comes and goes, but the narjillos move - so call this every
+	 * now and then to refresh them.
+	 */
 	public void resetFoodTargets() {
-		space.getAll(Narjillo.LABEL).forEach(narjillo -> {
-			Vector closestTarget = findClosestFoodTo(narjillo);
-			((Narjillo) narjillo).setTarget(closestTarget);
-		});
+		foodTargets.retargetAll();
 	}
 
 	Vector findClosestFoodTo(Thing thing) {
-		Thing target = space.findClosestTo(thing, FoodPellet.LABEL);
+		Thing target = space.findClosestTo(thing, foodTypeId);
 
 		if (target == null)
 			return center;
@@ -164,40 +251,54 @@ public class Ecosystem extends Environment {
 
 		// Consume food
 		synchronized (this) {
-			Map<Narjillo, Set<Thing>> narjillosToCollidedFood = tick(narjillos);
+			Collisions collidedFood = tick(narjillos);
+
+			// Re-bucket the narjillos that moved to different areas of space
+			narjillos.forEach(space::update);
+			foodTargets.narjillosMoved();
 
 			breathe(narjillos);
 
-			narjillosToCollidedFood.entrySet().forEach(entry -> consume(entry.getKey(), entry.getValue()));
-			resetFoodTargets();
+			consume(narjillos, collidedFood);
 		}
 
-		space.getAll(Egg.LABEL).forEach(thing -> tickEgg((Egg) thing, numGen));
+		// The seed of this tick's random streams. Each egg gets its own
+		// stream, so that the eggs can hatch and be laid in parallel.
+		long streamSeed = numGen.nextLong();
 
-		if (foodClock.shouldSpawnFood(getCount(FoodPellet.LABEL), numGen)) {
+		tickEggs(streamSeed);
+
+		if (foodClock.shouldSpawnFood(getCount(FoodPellet.LABEL), numGen))
 			spawnFood(randomPosition(getSize(), numGen));
-			resetFoodTargets();
-		}
 
-		narjillos.forEach(narjillo -> maybeLayEgg(narjillo, dnaLog, numGen));
+		layEggs(narjillos, dnaLog, numGen, streamSeed);
+
+		// The narjillos are done for this tick. Let the other threads see them.
+		narjillos.forEach(Narjillo::publishSnapshot);
 	}
 
-	private void consume(Narjillo narjillo, Set<Thing> collidedFood) {
-		collidedFood.stream()
-			.map(foodPellet -> (FoodPellet) foodPellet)
-			.forEach(foodPellet -> foodPellet.getEaten(narjillo));
+	private void consume(List<Narjillo> narjillos, Collisions collidedFood) {
+		for (int i = 0; i < narjillos.size(); i++) {
+			for (int j = 0; j < collidedFood.getNumberOfCollisions(i); j++) {
+				FoodPellet foodPellet = (FoodPellet) collidedFood.getCollidedThing(i, j);
+				foodPellet.getEaten(narjillos.get(i));
+			}
+		}
 	}
 
 	private void removeDeadThings(DNALog dnaLog) {
-		space.getAll("").stream()
+		// Find the dead things first, because removing them changes the view
+		List<Thing> deadThings = space.viewAll().stream()
 			.filter(Thing::isDead)
-			.forEach(thing -> {
-				remove(thing);
+			.collect(Collectors.toList());
+
+		deadThings.forEach(thing -> {
+			remove(thing);
 
-				// TODO: fix this ugliness
-				if (thing instanceof Narjillo)
-					dnaLog.markAsDead(((Narjillo) thing).getDNA().getId());
-			});
+			// TODO: fix this ugliness
+			if (thing instanceof Narjillo)
+				dnaLog.markAsDead(((Narjillo) thing).getDNA().getId());
+		});
 	}
 
 	private DNA createDna(String dna, DNALog dnaLog, NumGen numGen) {
@@ -206,8 +307,19 @@ public class Ecosystem extends Environment {
 		return result;
 	}
 
+	private synchronized TickExecutor getTickExecutor() {
+		if (tickExecutor == null)
+			tickExecutor = TickExecutor.create(executionStrategy);
+		return tickExecutor;
+	}
+
+	private void shutDownOwnTickExecutor() {
+		if (executionStrategy != null && tickExecutor != null)
+			tickExecutor.shutdown();
+	}
+
 	private boolean isShuttingDown() {
-		return executorService.isShutdown();
+		return isShuttingDown;
 	}
 
 	private DNA createRandomDna(DNALog dnaLog, NumGen numGen) {
@@ -221,10 +333,23 @@ public class Ecosystem extends Environment {
 			spawnFood(randomPosition(getSize(), numGen));
 	}
 
-	private void tickEgg(Egg egg, NumGen numGen) {
-		egg.tick();
-		if (egg.hatch(numGen))
-			insert(egg.getHatchedNarjillo().get());
+	private void tickEggs(long streamSeed) {
+		Egg[] eggs = space.getAll(Egg.LABEL).toArray(new Egg[0]);
+		boolean[] hatched = new boolean[eggs.length];
+
+		// Tick and hatch the eggs in parallel...
+		getTickExecutor().forEach(eggs.length, i -> {
+			Egg egg = eggs[i];
+			egg.tick();
+			hatched[i] = egg.hatch(new SplitMixStream(streamSeed, egg.getDNA().getId()));
+		});
+
+		// ...and then put them and the hatched narjillos in space, in order
+		for (int i = 0; i < eggs.length; i++) {
+			space.update(eggs[i]);
+			if (hatched[i])
+				insert(eggs[i].getHatchedNarjillo().get());
+		}
 	}
 
 	private void breathe(List<Narjillo> narjillos) {
@@ -233,38 +358,45 @@ public class Ecosystem extends Environment {
 		// creatures. Varies between 0 and 1 included.
 		double breathingPowerPerNarjillo = Math.min(1, (double) getAtmosphere().getCatalystLevel() / getCount(Narjillo.LABEL));
 
-		// Increase energies
-		narjillos.forEach(narjillo -> {
-			double densityOfBreathableElement = getAtmosphere().getDensityOf(narjillo.getBreathedElement());
-			double energyObtainedByBreathing = densityOfBreathableElement * breathingPowerPerNarjillo;
-			narjillo.getEnergy().increaseBy(energyObtainedByBreathing);
-		});
+		// Increase energies and count the conversions of elements in parallel...
+		Narjillo[] breathers = narjillos.toArray(new Narjillo[narjillos.size()]);
+		double[] densities = getAtmosphere().getDensities();
+		Conversions conversions = getTickExecutor().breathe(breathers, densities, breathingPowerPerNarjillo);
+
+		// ...and then consume the elements in one go. If that could give a
+		// different result than consuming them one narjillo at a time (for
+		// example, because some element is running out), then do it one
+		// narjillo at a time, in order.
+		if (!getAtmosphere().convertAll(conversions))
+			narjillos.forEach(narjillo -> getAtmosphere().convert(narjillo.getBreathedElement(), narjillo.getByproduct()));
+	}
 
-		// Consume elements
-		narjillos.forEach(narjillo -> {
-			getAtmosphere().convert(narjillo.getBreathedElement(), narjillo.getByproduct());
-		});
+	private Collisions tick(List<Narjillo> narjillos) {
+		// The workers search the space without locking it, so
+		// keep it still until they're done
+		space.freeze();
+		try {
+			if (tilesPerEdge > 1)
+				return tickInTiles(narjillos);
+			return tickInParallel(narjillos);
+		} finally {
+			space.commit();
+		}
 	}
 
-	private Map<Narjillo, Set<Thing>> tick(List<Narjillo> narjillos) {
-		// Calculate collisions in parallel...
-		Map<Narjillo, Future<Set<Thing>>> collisionFutures = new LinkedHashMap<>();
-		narjillos.forEach(narjillo -> {
-			collisionFutures.put(narjillo, executorService.submit(() -> {
-				Segment movement = narjillo.tick();
-				return space.detectCollisions(movement, FoodPellet.LABEL);
-			}));
-		});
+	private Collisions tickInParallel(List<Narjillo> narjillos) {
+		// Move the narjillos and check their movements against the food
+		// in parallel, but keep the results in the order of the narjillos
+		long startTime = System.nanoTime();
+		Collisions result = getTickExecutor().tick(narjillos.toArray(new Narjillo[narjillos.size()]), space, foodTypeId, workerUtilization);
+		workerUtilization.recordParallelTime(System.nanoTime() - startTime);
+		return result;
+	}
 
-		// ...but collect the results in a predictable sequential order
-		Map<Narjillo, Set<Thing>> result = new LinkedHashMap<>();
-		for (Narjillo narjillo : collisionFutures.keySet()) {
-			try {
-				result.put(narjillo, collisionFutures.get(narjillo).get());
-			} catch (InterruptedException | ExecutionException e) {
-				throw new RuntimeException(e);
-			}
-		}
+	private Collisions tickInTiles(List<Narjillo> narjillos) {
+		long startTime = System.nanoTime();
+		Collisions result = new TiledTick(space, foodTypeId, getSize(), tilesPerEdge, workerUtilization).run(getTickExecutor(), narjillos);
+		workerUtilization.recordParallelTime(System.nanoTime() - startTime);
 		return result;
 	}
 
@@ -272,18 +404,25 @@ public class Ecosystem extends Environment {
 		return Vector.cartesian(numGen.nextDouble() * size, numGen.nextDouble() * size);
 	}
 
-	private void remove(Thing thing) {
-		notifyThingRemoved(thing);
-		space.remove(thing);
-		thingsCounter.remove(thing.getLabel());
-	}
-
-	private void maybeLayEgg(Narjillo narjillo, DNALog dnaLog, NumGen numGen) {
-		Egg egg = narjillo.layEgg(dnaLog, numGen);
-		if (egg == null)
-			return;
-
-		insert(egg);
+	private void layEggs(List<Narjillo> narjillos, DNALog dnaLog, NumGen numGen, long streamSeed) {
+		// Give the DNA of the new eggs their ids, in order...
+		List<Narjillo> parents = new ArrayList<>();
+		for (Narjillo narjillo : narjillos)
+			if (narjillo.isReadyToLayEgg())
+				parents.add(narjillo);
+		long[] childDNAIds = new long[parents.size()];
+		for (int i = 0; i < childDNAIds.length; i++)
+			childDNAIds[i] = numGen.nextSerial();
+
+		// ...then mutate the DNA and lay the eggs in parallel...
+		Egg[] eggs = new Egg[parents.size()];
+		getTickExecutor().forEach(eggs.length, i -> eggs[i] = parents.get(i).layEgg(childDNAIds[i], new SplitMixStream(streamSeed, childDNAIds[i])));
+
+		// ...and then save the DNA and put the eggs in space, in order
+		for (Egg egg : eggs) {
+			dnaLog.save(egg.getDNA());
+			insert(egg);
+		}
 	}
 
 	private double getNumberOf1000SquarePointsBlocks() {
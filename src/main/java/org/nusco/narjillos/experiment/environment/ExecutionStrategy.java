@@ -0,0 +1,42 @@
+package org.nusco.narjillos.experiment.environment;
+
+/**
+ * How an Ecosystem runs the parallel parts of a tick (see TickExecutor).
+ * <p>
+ * The strategy doesn't change the results of the simulation, only its speed.
+ */
+public enum ExecutionStrategy {
+	/** Everything runs on the thread that calls tick(). */
+	SEQUENTIAL,
+
+	/** A fixed pool of platform threads, one per core. */
+	THREAD_POOL,
+
+	/** A work-stealing ForkJoinPool, one thread per core. */
+	FORK_JOIN,
+
+	/** A new virtual thread for each task. (Needs Java 21 or later). */
+	VIRTUAL_THREADS;
+
+	/**
+	 * Parses names like "fork_join" or "virtual-threads", as they come from
+	 * the configuration or the command line.
+	 */
+	public static ExecutionStrategy fromName(String name) {
+		try {
+			return valueOf(name.trim().toUpperCase().replace('-', '_'));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown execution strategy: \"" + name + "\" (try one of: " + getNames() + ")");
+		}
+	}
+
+	public static String getNames() {
+		StringBuilder result = new StringBuilder();
+		for (ExecutionStrategy strategy : values()) {
+			if (result.length() > 0)
+				result.append(", ");
+			result.append(strategy.name().toLowerCase());
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,159 @@
+package org.nusco.narjillos.experiment.environment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.things.Space;
+import org.nusco.narjillos.core.things.Thing;
+import org.nusco.narjillos.creature.Narjillo;
+
+/**
+ * Keeps track of the food pellet that each narjillo is going for, and of the
+ * narjillos that are going for each food pellet. When food comes or goes, it
+ * only retargets the narjillos that are affected, instead of looking for the
+ * closest food for all narjillos.
+ * <p>
+ * The narjillos that are affected by a new food pellet are the ones in its
+ * "influence region": the ones that are closer to the new pellet than to
+ * their current target. None of them can be farther from the pellet than the
+ * farthest target is from its narjillo, so they are found with a Space query
+ * around the pellet. The narjillos that are affected by a pellet that
+ * disappears are the ones that were going for it.
+ * <p>
+ * Narjillos move, so their targets slowly become stale. Call retargetAll()
+ * every now and then to find the closest food for everybody.
+ */
+class FoodTargets {
+
+	private final Space space;
+
+	private final int foodTypeId;
+
+	private final int narjilloTypeId;
+
+	// The target of the narjillos when there is no food around.
+	private final Vector defaultTarget;
+
+	// The value is null for narjillos that have no food to go for.
+	private final Map<Narjillo, Thing> narjillosToFood = new LinkedHashMap<>();
+
+	private final Map<Thing, Set<Narjillo>> foodToNarjillos = new LinkedHashMap<>();
+
+	private final Set<Narjillo> narjillosWithoutFood = new LinkedHashSet<>();
+
+	// At least as long as the distance of any narjillo from its food.
+	private double maxTargetDistance = 0;
+
+	FoodTargets(Space space, int foodTypeId, Vector defaultTarget) {
+		this.space = space;
+		this.foodTypeId = foodTypeId;
+		this.narjilloTypeId = space.getTypeId(Narjillo.LABEL);
+		this.defaultTarget = defaultTarget;
+	}
+
+	void retargetAll() {
+		maxTargetDistance = 0;
+		narjillosToFood.keySet().forEach(this::retarget);
+	}
+
+	/**
+	 * Call this after the narjillos move (and after the Space is updated), so
+	 * that addFood() knows how far from the new food it should look.
+	 */
+	void narjillosMoved() {
+		maxTargetDistance = 0;
+		for (Map.Entry<Narjillo, Thing> entry : narjillosToFood.entrySet())
+			if (entry.getValue() != null)
+				updateMaxTargetDistance(entry.getKey(), entry.getValue());
+	}
+
+	/**
+	 * If the narjillo is already going for a food pellet (for example, because
+	 * it was just deserialized), then it keeps going for it. Otherwise, it
+	 * goes for the closest food.
+	 */
+	void addNarjillo(Narjillo narjillo) {
+		Vector target = narjillo.getTarget();
+		Thing food = space.findClosestTo(target, foodTypeId);
+		if (food != null && food.getPosition().equals(target))
+			target(narjillo, food);
+		else
+			retarget(narjillo);
+	}
+
+	void removeNarjillo(Narjillo narjillo) {
+		narjillosWithoutFood.remove(narjillo);
+		Thing food = narjillosToFood.remove(narjillo);
+		if (food != null)
+			forget(food, narjillo);
+	}
+
+	void addFood(Thing food) {
+		// Targeting the narjillos takes them out of the set, so copy it
+		for (Narjillo narjillo : new ArrayList<>(narjillosWithoutFood))
+			target(narjillo, food);
+
+		Vector position = food.getPosition();
+		for (Thing thing : space.findCloserThan(position, maxTargetDistance, narjilloTypeId)) {
+			Narjillo narjillo = (Narjillo) thing;
+			Thing currentFood = narjillosToFood.get(narjillo);
+			if (currentFood != null && isCloser(narjillo.getPosition(), position, currentFood.getPosition()))
+				target(narjillo, food);
+		}
+	}
+
+	/**
+	 * Call this when the food is removed from space. The food can still be in
+	 * the Space (if the Space is frozen), but the narjillos won't go for it.
+	 */
+	void removeFood(Thing food) {
+		Set<Narjillo> narjillos = foodToNarjillos.remove(food);
+		if (narjillos == null)
+			return;
+
+		for (Narjillo narjillo : narjillos) {
+			narjillosToFood.put(narjillo, null);
+			target(narjillo, space.findClosestTo(narjillo.getPosition(), foodTypeId, food));
+		}
+	}
+
+	private void retarget(Narjillo narjillo) {
+		target(narjillo, space.findClosestTo(narjillo, foodTypeId));
+	}
+
+	private void target(Narjillo narjillo, Thing food) {
+		Thing previousFood = narjillosToFood.put(narjillo, food);
+		if (previousFood != null && previousFood != food)
+			forget(previousFood, narjillo);
+
+		if (food == null) {
+			narjillosWithoutFood.add(narjillo);
+			narjillo.setTarget(defaultTarget);
+			return;
+		}
+
+		narjillosWithoutFood.remove(narjillo);
+		foodToNarjillos.computeIfAbsent(food, key -> new LinkedHashSet<>()).add(narjillo);
+		narjillo.setTarget(food.getPosition());
+		updateMaxTargetDistance(narjillo, food);
+	}
+
+	private void updateMaxTargetDistance(Narjillo narjillo, Thing food) {
+		maxTargetDistance = Math.max(maxTargetDistance, food.getPosition().minus(narjillo.getPosition()).getLength());
+	}
+
+	private void forget(Thing food, Narjillo narjillo) {
+		Set<Narjillo> narjillos = foodToNarjillos.get(food);
+		narjillos.remove(narjillo);
+		if (narjillos.isEmpty())
+			foodToNarjillos.remove(food);
+	}
+
+	private static boolean isCloser(Vector position, Vector candidate, Vector current) {
+		return candidate.minus(position).getLengthSquared() < current.minus(position).getLengthSquared();
+	}
+}
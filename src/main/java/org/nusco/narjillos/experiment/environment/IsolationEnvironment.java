@@ -40,7 +40,9 @@ public class IsolationEnvironment extends Environment {
 
 	@Override
 	protected void tickThings(DNALog dnaLog, NumGen numGen) {
-		getNarjillo().tick();
+		Narjillo narjillo = getNarjillo();
+		narjillo.tick();
+		narjillo.publishSnapshot();
 	}
 
 	public synchronized void updateSpecimen(Narjillo narjillo) {
@@ -0,0 +1,97 @@
+package org.nusco.narjillos.experiment.environment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.nusco.narjillos.core.geometry.Segment;
+import org.nusco.narjillos.core.things.Collisions;
+import org.nusco.narjillos.core.things.Space;
+import org.nusco.narjillos.creature.Narjillo;
+
+/**
+ * The TickTask for executors that can't split tasks as they go, like a fixed
+ * pool of threads: ticks a range of narjillos that is decided up front, and
+ * finds the food that they collide with.
+ * <p>
+ * createChunks() splits the narjillos into ranges of about the same cost (see
+ * TickTask), a few for each worker, so that workers that finish early can
+ * pick up more work.
+ */
+class TickChunk implements Callable<Collisions> {
+
+	private final Narjillo[] narjillos;
+
+	private final Segment[] movements;
+
+	private final int from;
+
+	private final int to;
+
+	// The worker that this chunk counts as, if it
+	// doesn't run on a pool thread.
+	private final int slot;
+
+	private final Space space;
+
+	private final int foodTypeId;
+
+	private final WorkerUtilization utilization;
+
+	private TickChunk(Narjillo[] narjillos, Segment[] movements, int from, int to, int slot, Space space, int foodTypeId,
+		WorkerUtilization utilization) {
+		this.narjillos = narjillos;
+		this.movements = movements;
+		this.from = from;
+		this.to = to;
+		this.slot = slot;
+		this.space = space;
+		this.foodTypeId = foodTypeId;
+		this.utilization = utilization;
+	}
+
+	static List<TickChunk> createChunks(Narjillo[] narjillos, Space space, int foodTypeId, int parallelism, WorkerUtilization utilization) {
+		int numberOfChunks = (parallelism == 1) ? 1 : parallelism * TickTask.CHUNKS_PER_WORKER;
+		int[] boundaries = getChunkBoundaries(TickTask.getCumulativeCosts(narjillos), numberOfChunks);
+
+		Segment[] movements = new Segment[narjillos.length];
+		List<TickChunk> result = new ArrayList<>();
+		for (int i = 0; i < boundaries.length - 1; i++)
+			result.add(new TickChunk(narjillos, movements, boundaries[i], boundaries[i + 1], i % parallelism, space, foodTypeId, utilization));
+		return result;
+	}
+
+	@Override
+	public Collisions call() {
+		return TickTask.tickRange(narjillos, movements, from, to, slot, space, foodTypeId, utilization);
+	}
+
+	/**
+	 * Returns the indexes that split the narjillos into (at most) the given
+	 * number of chunks of about the same cost. The first index is 0 and the
+	 * last is the number of narjillos. Each chunk contains at least one
+	 * narjillo.
+	 */
+	static int[] getChunkBoundaries(long[] cumulativeCosts, int numberOfChunks) {
+		int numberOfNarjillos = cumulativeCosts.length - 1;
+		long totalCost = cumulativeCosts[numberOfNarjillos];
+
+		int[] result = new int[numberOfChunks + 1];
+		int numberOfBoundaries = 1;
+		for (int chunk = 1; chunk < numberOfChunks; chunk++) {
+			long targetCost = totalCost * chunk / numberOfChunks;
+			int boundary = Arrays.binarySearch(cumulativeCosts, targetCost);
+			if (boundary < 0)
+				boundary = -boundary - 1;
+			// Leave at least one narjillo for the last chunk
+			boundary = Math.min(boundary, numberOfNarjillos - 1);
+			if (boundary > result[numberOfBoundaries - 1])
+				result[numberOfBoundaries++] = boundary;
+		}
+		if (numberOfNarjillos > 0)
+			result[numberOfBoundaries++] = numberOfNarjillos;
+		return Arrays.copyOf(result, numberOfBoundaries);
+	}
+
+}
@@ -0,0 +1,305 @@
+package org.nusco.narjillos.experiment.environment;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import org.nusco.narjillos.core.chemistry.Conversions;
+import org.nusco.narjillos.core.things.Collisions;
+import org.nusco.narjillos.core.things.Space;
+import org.nusco.narjillos.creature.Narjillo;
+
+/**
+ * Runs the parallel parts of a tick, following an ExecutionStrategy. The
+ * ecosystem splits the work into independent tasks, and the TickExecutor runs
+ * them and returns their results in the same order as the tasks. So the
+ * results don't depend on the strategy.
+ * <p>
+ * The FORK_JOIN executor runs the phases of the tick as recursive tasks
+ * (TickTask, BreatheTask and TiledTick's tiles), that split their ranges as
+ * they go and let idle workers steal the halves. The other executors can't
+ * split tasks while they run, so they split the phases into chunks up front
+ * (TickChunk and BreatheChunk) and hand them to the threads. The reproduction
+ * phases are cheaper, and they run in chunks on all executors (see
+ * forEach()).
+ * <p>
+ * Multiple ecosystems can share the same TickExecutor. Callables should not
+ * submit other tasks to the same TickExecutor, because a fixed pool of
+ * threads could deadlock.
+ */
+public abstract class TickExecutor {
+
+	private final int parallelism;
+
+	private TickExecutor(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Creates a TickExecutor with the given strategy. Pools have one thread
+	 * per core, named "tick-worker-N", that run at the same priority as the
+	 * calling thread.
+	 */
+	public static TickExecutor create(ExecutionStrategy strategy) {
+		return create(strategy, Runtime.getRuntime().availableProcessors());
+	}
+
+	// Also used to measure how the tick scales with the number of workers.
+	static TickExecutor create(ExecutionStrategy strategy, int parallelism) {
+		switch (strategy) {
+		case SEQUENTIAL:
+			return new SequentialTickExecutor();
+		case THREAD_POOL:
+			return new PooledTickExecutor(Executors.newFixedThreadPool(parallelism, createTickWorkerFactory()), parallelism);
+		case FORK_JOIN:
+			return new ForkJoinTickExecutor(new ForkJoinPool(parallelism, createForkJoinTickWorkerFactory(), null, false));
+		case VIRTUAL_THREADS:
+			return new PooledTickExecutor(createVirtualThreadPerTaskExecutor(), parallelism);
+		default:
+			throw new IllegalArgumentException("Unknown execution strategy: " + strategy);
+		}
+	}
+
+	/**
+	 * The number of tasks that can run at the same time.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Runs all the tasks, and returns their results in the order of the tasks.
+	 */
+	public abstract <T> List<T> invokeAll(List<? extends Callable<T>> tasks);
+
+	/**
+	 * Stops the threads, if any. Call this only when no ecosystem is using
+	 * this executor anymore.
+	 */
+	public abstract void shutdown();
+
+	/**
+	 * Ticks the narjillos, and returns the food that they collide with, in
+	 * the order of the narjillos. The Space must be frozen.
+	 */
+	Collisions tick(Narjillo[] narjillos, Space space, int foodTypeId, WorkerUtilization utilization) {
+		return TickTask.concatenate(invokeAll(TickChunk.createChunks(narjillos, space, foodTypeId, getParallelism(), utilization)));
+	}
+
+	/**
+	 * Lets the narjillos breathe, and returns the conversions they made.
+	 */
+	Conversions breathe(Narjillo[] narjillos, double[] densities, double breathingPowerPerNarjillo) {
+		Conversions result = new Conversions();
+		invokeAll(BreatheChunk.createChunks(narjillos, densities, breathingPowerPerNarjillo)).forEach(result::addAll);
+		return result;
+	}
+
+	/**
+	 * Ticks each tile, and returns the collisions of each tile in the order
+	 * of the tiles.
+	 */
+	List<Collisions> tickTiles(TiledTick tiledTick, List<Narjillo[]> tiles) {
+		List<Callable<Collisions>> tasks = new ArrayList<>();
+		for (int i = 0; i < tiles.size(); i++) {
+			Narjillo[] tile = tiles.get(i);
+			int slot = i % getParallelism();
+			tasks.add(() -> tiledTick.tickTile(tile, slot));
+		}
+		return invokeAll(tasks);
+	}
+
+	/**
+	 * Runs the action on each index from 0 to numberOfItems (excluded), in
+	 * chunks of consecutive indexes that run in parallel. The actions must
+	 * not depend on each other.
+	 */
+	void forEach(int numberOfItems, IntConsumer action) {
+		int numberOfChunks = Math.min(numberOfItems, getParallelism() * TickTask.CHUNKS_PER_WORKER);
+		List<Callable<Void>> chunks = new ArrayList<>();
+		for (int i = 0; i < numberOfChunks; i++) {
+			int from = (int) ((long) numberOfItems * i / numberOfChunks);
+			int to = (int) ((long) numberOfItems * (i + 1) / numberOfChunks);
+			chunks.add(() -> {
+				for (int index = from; index < to; index++)
+					action.accept(index);
+				return null;
+			});
+		}
+		invokeAll(chunks);
+	}
+
+	/**
+	 * The index of the worker that is running the current task, from 0 to
+	 * about the parallelism of the executor. Pool threads have their own
+	 * index. Other threads (virtual threads, or the thread that called
+	 * the executor) don't, so the task tells which slot it counts as.
+	 */
+	static int getCurrentWorker(int slot) {
+		Thread currentThread = Thread.currentThread();
+		if (currentThread instanceof ForkJoinWorkerThread)
+			return ((ForkJoinWorkerThread) currentThread).getPoolIndex();
+		if (currentThread instanceof TickWorkerThread)
+			return ((TickWorkerThread) currentThread).index;
+		return slot;
+	}
+
+	private static <T> List<T> callAll(List<? extends Callable<T>> tasks) {
+		List<T> result = new ArrayList<>();
+		for (Callable<T> task : tasks) {
+			try {
+				result.add(task.call());
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return result;
+	}
+
+	private static ThreadFactory createTickWorkerFactory() {
+		AtomicInteger tickWorkerCounter = new AtomicInteger(0);
+		int priority = Thread.currentThread().getPriority();
+		return (Runnable runnable) -> {
+			Thread result = new TickWorkerThread(runnable, tickWorkerCounter.getAndIncrement());
+			result.setDaemon(true);
+			result.setPriority(priority);
+			return result;
+		};
+	}
+
+	private static ForkJoinWorkerThreadFactory createForkJoinTickWorkerFactory() {
+		AtomicInteger tickWorkerCounter = new AtomicInteger(1);
+		int priority = Thread.currentThread().getPriority();
+		return (ForkJoinPool pool) -> {
+			ForkJoinWorkerThread result = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			result.setName("tick-worker-" + tickWorkerCounter.getAndIncrement());
+			result.setPriority(priority);
+			return result;
+		};
+	}
+
+	// The project still compiles for Javas that don't have virtual
+	// threads, so look up the factory method at runtime.
+	private static ExecutorService createVirtualThreadPerTaskExecutor() {
+		try {
+			MethodHandle factory = MethodHandles.publicLookup()
+				.findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+			return (ExecutorService) factory.invoke();
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("Virtual threads need Java 21 or later (this is Java " + System.getProperty("java.version") + ")");
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static class TickWorkerThread extends Thread {
+
+		final int index;
+
+		TickWorkerThread(Runnable runnable, int index) {
+			super(runnable, "tick-worker-" + (index + 1));
+			this.index = index;
+		}
+	}
+
+	private static class SequentialTickExecutor extends TickExecutor {
+
+		SequentialTickExecutor() {
+			super(1);
+		}
+
+		@Override
+		public <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+			return callAll(tasks);
+		}
+
+		@Override
+		public void shutdown() {
+		}
+	}
+
+	private static class PooledTickExecutor extends TickExecutor {
+
+		private final ExecutorService executorService;
+
+		PooledTickExecutor(ExecutorService executorService, int parallelism) {
+			super(parallelism);
+			this.executorService = executorService;
+		}
+
+		@Override
+		public <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+			// A single task is not worth a trip to another thread
+			if (tasks.size() <= 1)
+				return callAll(tasks);
+
+			try {
+				List<T> result = new ArrayList<>();
+				for (Future<T> future : executorService.invokeAll(tasks))
+					result.add(future.get());
+				return result;
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void shutdown() {
+			executorService.shutdown();
+			try {
+				executorService.awaitTermination(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	private static class ForkJoinTickExecutor extends PooledTickExecutor {
+
+		private final ForkJoinPool pool;
+
+		ForkJoinTickExecutor(ForkJoinPool pool) {
+			super(pool, pool.getParallelism());
+			this.pool = pool;
+		}
+
+		@Override
+		Collisions tick(Narjillo[] narjillos, Space space, int foodTypeId, WorkerUtilization utilization) {
+			return pool.invoke(TickTask.create(narjillos, space, foodTypeId, getParallelism(), utilization));
+		}
+
+		@Override
+		Conversions breathe(Narjillo[] narjillos, double[] densities, double breathingPowerPerNarjillo) {
+			return pool.invoke(new BreatheTask(narjillos, densities, breathingPowerPerNarjillo));
+		}
+
+		@Override
+		List<Collisions> tickTiles(TiledTick tiledTick, List<Narjillo[]> tiles) {
+			List<TickTask> tasks = tiledTick.createTileTasks(tiles, getParallelism());
+
+			pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+			List<Collisions> result = new ArrayList<>();
+			for (TickTask task : tasks)
+				result.add(task.join());
+			return result;
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package org.nusco.narjillos.experiment.environment;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import org.nusco.narjillos.core.geometry.Segment;
+import org.nusco.narjillos.core.things.Collisions;
+import org.nusco.narjillos.core.things.Space;
+import org.nusco.narjillos.creature.Narjillo;
+
+/**
+ * Ticks a range of narjillos on a ForkJoinPool, and finds the food that they
+ * collide with. Big ranges split in two, so idle workers can steal them.
+ * Small ranges are ticked in a loop, and then checked against the food in one
+ * batch. The collisions are in the order of the range.
+ * <p>
+ * Ranges are big or small depending on their cost, not on the number of
+ * narjillos in them (see Narjillo.getTickCost()). A narjillo with dozens of
+ * organs takes much longer to tick than a narjillo with two organs, so
+ * splitting by count would leave some workers idle while others are still
+ * busy with the big creatures.
+ * <p>
+ * The workers search the Space without locking it, so the Space must be
+ * frozen until all the tasks are done. The results don't depend on which
+ * worker ticks which narjillo, so they're as deterministic as a sequential
+ * tick.
+ */
+class TickTask extends RecursiveTask<Collisions> {
+
+	// Aim for a few chunks per worker, so that the workers can
+	// even out the load by stealing.
+	static final int CHUNKS_PER_WORKER = 4;
+
+	private final Narjillo[] narjillos;
+
+	private final Segment[] movements;
+
+	// The cost of the narjillos before each index. The last element
+	// is the total cost.
+	private final long[] cumulativeCosts;
+
+	private final int from;
+
+	private final int to;
+
+	private final long chunkCost;
+
+	private final Space space;
+
+	private final int foodTypeId;
+
+	private final WorkerUtilization utilization;
+
+	/**
+	 * A task that ticks the narjillos in a few chunks for each worker.
+	 */
+	static TickTask create(Narjillo[] narjillos, Space space, int foodTypeId, int parallelism, WorkerUtilization utilization) {
+		long[] cumulativeCosts = getCumulativeCosts(narjillos);
+		long chunkCost = getChunkCost(cumulativeCosts[narjillos.length], parallelism);
+		return new TickTask(narjillos, cumulativeCosts, chunkCost, space, foodTypeId, utilization);
+	}
+
+	/**
+	 * A task that splits into chunks of the given cost. Use this to tick a
+	 * few groups of narjillos as separate tasks that share the same chunk
+	 * cost (see TiledTick).
+	 */
+	TickTask(Narjillo[] narjillos, long[] cumulativeCosts, long chunkCost, Space space, int foodTypeId, WorkerUtilization utilization) {
+		this(narjillos, new Segment[narjillos.length], cumulativeCosts, 0, narjillos.length, chunkCost, space, foodTypeId, utilization);
+	}
+
+	private TickTask(Narjillo[] narjillos, Segment[] movements, long[] cumulativeCosts, int from, int to, long chunkCost, Space space,
+		int foodTypeId, WorkerUtilization utilization) {
+		this.narjillos = narjillos;
+		this.movements = movements;
+		this.cumulativeCosts = cumulativeCosts;
+		this.from = from;
+		this.to = to;
+		this.chunkCost = chunkCost;
+		this.space = space;
+		this.foodTypeId = foodTypeId;
+		this.utilization = utilization;
+	}
+
+	@Override
+	protected Collisions compute() {
+		if (to - from <= 1 || cumulativeCosts[to] - cumulativeCosts[from] <= chunkCost)
+			return tickRange(narjillos, movements, from, to, 0, space, foodTypeId, utilization);
+
+		int middle = findSplit(cumulativeCosts, from, to);
+		TickTask secondHalf = new TickTask(narjillos, movements, cumulativeCosts, middle, to, chunkCost, space, foodTypeId, utilization);
+		secondHalf.fork();
+		Collisions firstHalfCollisions = new TickTask(narjillos, movements, cumulativeCosts, from, middle, chunkCost, space, foodTypeId, utilization)
+			.compute();
+		return concatenate(Arrays.asList(firstHalfCollisions, secondHalf.join()));
+	}
+
+	/**
+	 * Ticks the narjillos from index "from" (included) to index "to"
+	 * (excluded) in the current thread, writes their movements in the slots
+	 * with the same indexes, and checks the movements against the food in
+	 * one batch. Also records the work in the utilization. Both the tasks and
+	 * the chunks (see TickChunk) end up here. The slot is the worker that the
+	 * range counts as, if it doesn't run on a pool thread.
+	 */
+	static Collisions tickRange(Narjillo[] narjillos, Segment[] movements, int from, int to, int slot, Space space, int foodTypeId,
+		WorkerUtilization utilization) {
+		long startTime = System.nanoTime();
+		for (int i = from; i < to; i++)
+			movements[i] = narjillos[i].tick();
+		Collisions result = space.detectCollisions(Arrays.asList(movements).subList(from, to), foodTypeId);
+		utilization.recordWork(TickExecutor.getCurrentWorker(slot), System.nanoTime() - startTime);
+		return result;
+	}
+
+	/**
+	 * Puts together the collisions of consecutive ranges of narjillos, in
+	 * the order of the ranges.
+	 */
+	static Collisions concatenate(List<Collisions> collisionsOfRanges) {
+		int numberOfMovements = 0;
+		for (Collisions collisions : collisionsOfRanges)
+			numberOfMovements += collisions.getNumberOfMovements();
+
+		int[] rangesOfMovements = new int[numberOfMovements];
+		int[] indexesInRanges = new int[numberOfMovements];
+		int movement = 0;
+		for (int range = 0; range < collisionsOfRanges.size(); range++) {
+			for (int i = 0; i < collisionsOfRanges.get(range).getNumberOfMovements(); i++) {
+				rangesOfMovements[movement] = range;
+				indexesInRanges[movement] = i;
+				movement++;
+			}
+		}
+		return Collisions.gather(collisionsOfRanges.toArray(new Collisions[0]), rangesOfMovements, indexesInRanges);
+	}
+
+	/**
+	 * Returns the index that splits the range in two halves of about the same
+	 * cost. Both halves contain at least one narjillo.
+	 */
+	static int findSplit(long[] cumulativeCosts, int from, int to) {
+		long halfCost = (cumulativeCosts[from] + cumulativeCosts[to]) / 2;
+		int result = Arrays.binarySearch(cumulativeCosts, from + 1, to, halfCost);
+		if (result < 0)
+			result = -result - 1;
+		return Math.min(Math.max(result, from + 1), to - 1);
+	}
+
+	/**
+	 * The cost under which a range is not worth splitting anymore, for a
+	 * tick of the given total cost.
+	 */
+	static long getChunkCost(long totalCost, int parallelism) {
+		return totalCost / (parallelism * CHUNKS_PER_WORKER);
+	}
+
+	static long[] getCumulativeCosts(Narjillo[] narjillos) {
+		long[] result = new long[narjillos.length + 1];
+		for (int i = 0; i < narjillos.length; i++)
+			result[i + 1] = result[i] + narjillos[i].getTickCost();
+		return result;
+	}
+}
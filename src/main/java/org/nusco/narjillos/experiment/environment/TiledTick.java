@@ -0,0 +1,122 @@
+package org.nusco.narjillos.experiment.environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.nusco.narjillos.core.geometry.Segment;
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.things.Collisions;
+import org.nusco.narjillos.core.things.Space;
+import org.nusco.narjillos.creature.Narjillo;
+
+/**
+ * Moves the narjillos and finds the food they collide with, one tile of the
+ * ecosystem at a time. The ecosystem is split into a grid of square tiles,
+ * and each tile owns the narjillos that are inside it at the beginning of the
+ * tick. Each tile is a task on the TickExecutor, that both moves its narjillos
+ * and checks their movements against the food. So in a big ecosystem, the
+ * collision checks run in parallel as well, and each worker searches a
+ * compact region of space.
+ * <p>
+ * The Space is frozen during the whole operation, so tiles can safely look
+ * at the food beyond their borders: that's how a narjillo near a border can
+ * eat food from a neighboring tile. Narjillos that move into another tile
+ * belong to that tile from the next tick on.
+ * <p>
+ * The results are gathered back in the original order of the narjillos. So
+ * they're the same as an untiled tick, whatever the number of tiles and the
+ * scheduling of the tasks.
+ */
+class TiledTick {
+
+	private final Space space;
+
+	private final int foodTypeId;
+
+	private final long size;
+
+	private final int tilesPerEdge;
+
+	private final WorkerUtilization utilization;
+
+	TiledTick(Space space, int foodTypeId, long size, int tilesPerEdge, WorkerUtilization utilization) {
+		this.space = space;
+		this.foodTypeId = foodTypeId;
+		this.size = size;
+		this.tilesPerEdge = tilesPerEdge;
+		this.utilization = utilization;
+	}
+
+	Collisions run(TickExecutor executor, List<Narjillo> narjillos) {
+		// Sort the narjillos by tile, but keep their relative order inside each tile
+		int[] tilesOfNarjillos = new int[narjillos.size()];
+		int[] tileSizes = new int[tilesPerEdge * tilesPerEdge];
+		for (int i = 0; i < narjillos.size(); i++) {
+			tilesOfNarjillos[i] = getTile(narjillos.get(i).getPosition());
+			tileSizes[tilesOfNarjillos[i]]++;
+		}
+
+		// Only the tiles with narjillos in them become tasks
+		int[] tilesToTasks = new int[tileSizes.length];
+		List<Narjillo[]> tasks = new ArrayList<>();
+		for (int tile = 0; tile < tileSizes.length; tile++) {
+			if (tileSizes[tile] == 0)
+				continue;
+			tilesToTasks[tile] = tasks.size();
+			tasks.add(new Narjillo[tileSizes[tile]]);
+		}
+
+		int[] tasksOfNarjillos = new int[narjillos.size()];
+		int[] indexesInTasks = new int[narjillos.size()];
+		int[] taskSizes = new int[tasks.size()];
+		for (int i = 0; i < narjillos.size(); i++) {
+			int task = tilesToTasks[tilesOfNarjillos[i]];
+			tasksOfNarjillos[i] = task;
+			indexesInTasks[i] = taskSizes[task]++;
+			tasks.get(task)[indexesInTasks[i]] = narjillos.get(i);
+		}
+
+		Collisions[] collisionsOfTasks = executor.tickTiles(this, tasks).toArray(new Collisions[tasks.size()]);
+		return Collisions.gather(collisionsOfTasks, tasksOfNarjillos, indexesInTasks);
+	}
+
+	int getTile(Vector position) {
+		return getTileCoordinate(position.y) * tilesPerEdge + getTileCoordinate(position.x);
+	}
+
+	// Narjillos can wander outside the ecosystem, so
+	// the tiles at the edges extend to infinity.
+	private int getTileCoordinate(double coordinate) {
+		int result = (int) Math.floor(coordinate * tilesPerEdge / size);
+		return Math.min(Math.max(result, 0), tilesPerEdge - 1);
+	}
+
+	/**
+	 * Ticks a tile in the current thread. The slot is the worker that the
+	 * tile counts as, if it doesn't run on a pool thread.
+	 */
+	Collisions tickTile(Narjillo[] narjillos, int slot) {
+		return TickTask.tickRange(narjillos, new Segment[narjillos.length], 0, narjillos.length, slot, space, foodTypeId, utilization);
+	}
+
+	/**
+	 * Creates the tasks that tick the tiles on a ForkJoinPool. Tiles that
+	 * cost more than a chunk of the whole tick split like any TickTask, so a
+	 * crowded tile doesn't keep one worker busy while the others are idle.
+	 */
+	List<TickTask> createTileTasks(List<Narjillo[]> tiles, int parallelism) {
+		List<long[]> cumulativeCostsOfTiles = new ArrayList<>();
+		long totalCost = 0;
+		for (Narjillo[] tile : tiles) {
+			long[] cumulativeCosts = TickTask.getCumulativeCosts(tile);
+			cumulativeCostsOfTiles.add(cumulativeCosts);
+			totalCost += cumulativeCosts[tile.length];
+		}
+
+		long chunkCost = TickTask.getChunkCost(totalCost, parallelism);
+		List<TickTask> result = new ArrayList<>();
+		for (int i = 0; i < tiles.size(); i++)
+			result.add(new TickTask(tiles.get(i), cumulativeCostsOfTiles.get(i), chunkCost, space, foodTypeId, utilization));
+		return result;
+	}
+}
@@ -0,0 +1,66 @@
+package org.nusco.narjillos.experiment.environment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tracks how busy the workers that tick the narjillos are. The utilization of
+ * a worker is the time it spent ticking narjillos, divided by the time that
+ * the parallel part of the ticks took. A worker at 1.0 was busy all the
+ * time. The sequential parts of a tick (eating, breathing, and so on) don't
+ * count.
+ * <p>
+ * Workers are identified by their index in the TickExecutor, not by the
+ * name of their thread. (Virtual threads don't have names, and they don't
+ * live longer than a task anyway).
+ * <p>
+ * The numbers refer to the last full second, like the Chronometer's.
+ */
+public class WorkerUtilization {
+
+	private final Map<Integer, Long> busyTimes = new TreeMap<>();
+
+	private long parallelTime = 0;
+
+	private long lastSecondStartTime = 0;
+
+	private Map<Integer, Double> utilizationsInLastSecond = new LinkedHashMap<>();
+
+	synchronized void recordWork(int worker, long nanoseconds) {
+		busyTimes.merge(worker, nanoseconds, Long::sum);
+	}
+
+	synchronized void recordParallelTime(long nanoseconds) {
+		parallelTime += nanoseconds;
+
+		if (System.currentTimeMillis() - lastSecondStartTime <= 1000)
+			return;
+
+		lastSecondStartTime = System.currentTimeMillis();
+		utilizationsInLastSecond = new LinkedHashMap<>();
+		for (Map.Entry<Integer, Long> entry : busyTimes.entrySet())
+			utilizationsInLastSecond.put(entry.getKey(), parallelTime == 0 ? 0 : (double) entry.getValue() / parallelTime);
+		busyTimes.clear();
+		parallelTime = 0;
+	}
+
+	/**
+	 * The utilization of each worker, ordered by worker index.
+	 */
+	public synchronized Map<Integer, Double> getUtilizationsInLastSecond() {
+		return new LinkedHashMap<>(utilizationsInLastSecond);
+	}
+
+	/**
+	 * The utilization of the least busy worker. If the workers have uneven
+	 * loads, then this is much lower than the average.
+	 */
+	public synchronized double getMinimumUtilizationInLastSecond() {
+		return utilizationsInLastSecond.values().stream().mapToDouble(Double::doubleValue).min().orElse(0);
+	}
+
+	public synchronized double getAverageUtilizationInLastSecond() {
+		return utilizationsInLastSecond.values().stream().mapToDouble(Double::doubleValue).average().orElse(0);
+	}
+}
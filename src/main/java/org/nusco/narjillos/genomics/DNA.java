@@ -6,7 +6,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.nusco.narjillos.core.configuration.Configuration;
-import org.nusco.narjillos.core.utilities.NumGen;
+import org.nusco.narjillos.core.utilities.RandomStream;
 
 /**
  * A sequence of genes.
@@ -37,8 +37,8 @@ public class DNA implements Iterable<Chromosome> {
 		this.parentId = parentId;
 	}
 
-	public static DNA random(long id, NumGen numGen) {
-		return new DNA(id, randomGenes(getDefaultSize(), numGen), 0);
+	public static DNA random(long id, RandomStream randomStream) {
+		return new DNA(id, randomGenes(getDefaultSize(), randomStream), 0);
 	}
 
 	public long getId() {
@@ -57,15 +57,15 @@ public class DNA implements Iterable<Chromosome> {
 		return genes;
 	}
 
-	public DNA mutate(long id, NumGen numGen) {
+	public DNA mutate(long id, RandomStream randomStream) {
 		List<Integer[]> resultChromosomes = new LinkedList<>();
 		for (Chromosome chromosome : this)
-			if (isChromosomeMutation(numGen))
-				resultChromosomes.addAll(mutateChromosome(numGen, chromosome));
+			if (isChromosomeMutation(randomStream))
+				resultChromosomes.addAll(mutateChromosome(randomStream, chromosome));
 			else
-				resultChromosomes.add(copyChromosome(chromosome, numGen));
+				resultChromosomes.add(copyChromosome(chromosome, randomStream));
 		Integer[] resultGenes = flattenToGenes(resultChromosomes);
-		return new DNA(id, padToSameGenomeLength(resultGenes, numGen), getId());
+		return new DNA(id, padToSameGenomeLength(resultGenes, randomStream), getId());
 	}
 
 	public int getSimHashedDistanceFrom(DNA other) {
@@ -156,54 +156,54 @@ public class DNA implements Iterable<Chromosome> {
 		return Chromosome.SIZE * Configuration.DNA_NUMBER_OF_CHROMOSOMES;
 	}
 
-	private static Integer[] randomGenes(int size, NumGen numGen) {
+	private static Integer[] randomGenes(int size, RandomStream randomStream) {
 		Integer[] genes = new Integer[size];
 		for (int i = 0; i < genes.length; i++)
-			genes[i] = numGen.nextByte();
+			genes[i] = randomStream.nextByte();
 		return genes;
 	}
 
-	private List<Integer[]> mutateChromosome(NumGen numGen, Chromosome chromosome) {
-		if (isSkipMutation(numGen))
+	private List<Integer[]> mutateChromosome(RandomStream randomStream, Chromosome chromosome) {
+		if (isSkipMutation(randomStream))
 			return new LinkedList<>();
 
 		// duplicate the chromosome
 		List<Integer[]> resultChromosomes = new LinkedList<>();
-		Integer[] copiedGenes = copyChromosome(chromosome, numGen);
+		Integer[] copiedGenes = copyChromosome(chromosome, randomStream);
 		resultChromosomes.add(copiedGenes);
 		resultChromosomes.add(copiedGenes);
 		return resultChromosomes;
 	}
 
-	private boolean isSkipMutation(NumGen numGen) {
-		return numGen.nextDouble() > 0.5;
+	private boolean isSkipMutation(RandomStream randomStream) {
+		return randomStream.nextDouble() > 0.5;
 	}
 
-	private Integer[] copyChromosome(Chromosome chromosome, NumGen numGen) {
+	private Integer[] copyChromosome(Chromosome chromosome, RandomStream randomStream) {
 		Integer[] result = new Integer[Chromosome.SIZE];
 		for (int i = 0; i < result.length; i++)
-			result[i] = copyWithMutations(chromosome.getGene(i), numGen);
+			result[i] = copyWithMutations(chromosome.getGene(i), randomStream);
 		return result;
 	}
 
-	private int copyWithMutations(int gene, NumGen numGen) {
-		return isMutantGene(numGen) ? mutate(gene, numGen) : gene;
+	private int copyWithMutations(int gene, RandomStream randomStream) {
+		return isMutantGene(randomStream) ? mutate(gene, randomStream) : gene;
 	}
 
-	private boolean isMutantGene(NumGen numGen) {
-		return numGen.nextDouble() < Configuration.DNA_MUTATION_RATE;
+	private boolean isMutantGene(RandomStream randomStream) {
+		return randomStream.nextDouble() < Configuration.DNA_MUTATION_RATE;
 	}
 
-	private boolean isChromosomeMutation(NumGen numGen) {
-		return numGen.nextDouble() < (Configuration.DNA_MUTATION_RATE / (Chromosome.SIZE * 2));
+	private boolean isChromosomeMutation(RandomStream randomStream) {
+		return randomStream.nextDouble() < (Configuration.DNA_MUTATION_RATE / (Chromosome.SIZE * 2));
 	}
 
 	private Integer[] clipGenes(Integer[] genes) {
 		return (genes.length > 0) ? clipToByteSize(genes) : new Integer[] { 0 };
 	}
 
-	private int mutate(int gene, NumGen numGen) {
-		int randomFactor = (int) ((numGen.nextDouble() * Configuration.DNA_MUTATION_RANGE * 2) - Configuration.DNA_MUTATION_RANGE);
+	private int mutate(int gene, RandomStream randomStream) {
+		int randomFactor = (int) ((randomStream.nextDouble() * Configuration.DNA_MUTATION_RANGE * 2) - Configuration.DNA_MUTATION_RANGE);
 		return gene + randomFactor;
 	}
 
@@ -214,10 +214,10 @@ public class DNA implements Iterable<Chromosome> {
 		return result.toArray(new Integer[result.size()]);
 	}
 
-	private Integer[] padToSameGenomeLength(Integer[] otherGenes, NumGen numGen) {
+	private Integer[] padToSameGenomeLength(Integer[] otherGenes, RandomStream randomStream) {
 		Integer[] result = new Integer[genes.length];
 		for (int i = 0; i < result.length; i++)
-			result[i] = i < otherGenes.length ? otherGenes[i] : numGen.nextByte();
+			result[i] = i < otherGenes.length ? otherGenes[i] : randomStream.nextByte();
 		return result;
 	}
 
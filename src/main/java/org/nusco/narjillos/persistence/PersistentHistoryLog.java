@@ -6,7 +6,6 @@ import java.sql.Statement;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.nusco.narjillos.experiment.Experiment;
 import org.nusco.narjillos.experiment.HistoryLog;
 import org.nusco.narjillos.experiment.ExperimentHistoryEntry;
 
@@ -18,8 +17,7 @@ public class PersistentHistoryLog extends PersistentInformation implements Histo
 	}
 
 	@Override
-	public void saveEntry(Experiment experiment) {
-		ExperimentHistoryEntry entry = new ExperimentHistoryEntry(experiment);
+	public void saveEntry(ExperimentHistoryEntry entry) {
 		if (contains(entry))
 			return;
 		Statement statement = createStatement();
@@ -0,0 +1,47 @@
+package org.nusco.narjillos.persistence.serialization;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.nusco.narjillos.core.chemistry.Atmosphere;
+import org.nusco.narjillos.core.chemistry.Element;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+/**
+ * Keeps the JSON format of the atmosphere that was there when the
+ * levels were stored in a map of elements.
+ */
+class AtmosphereAdapter implements JsonSerializer<Atmosphere>, JsonDeserializer<Atmosphere> {
+
+	@Override
+	public JsonElement serialize(Atmosphere atmosphere, Type type, JsonSerializationContext context) {
+		JsonObject result = new JsonObject();
+		result.addProperty("saturationElementLevels", atmosphere.getSaturationElementLevels());
+
+		JsonObject levels = new JsonObject();
+		atmosphere.getAmounts().forEach((element, level) -> levels.addProperty(element.name(), level));
+		result.add("levels", levels);
+
+		result.addProperty("catalystLevel", atmosphere.getCatalystLevel());
+		return result;
+	}
+
+	@Override
+	public Atmosphere deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+		JsonObject jsonObject = json.getAsJsonObject();
+
+		Map<Element, Double> levels = new LinkedHashMap<>();
+		jsonObject.getAsJsonObject("levels").entrySet()
+			.forEach(entry -> levels.put(Element.valueOf(entry.getKey()), entry.getValue().getAsDouble()));
+
+		return new Atmosphere(jsonObject.get("saturationElementLevels").getAsDouble(), levels, jsonObject.get("catalystLevel").getAsInt());
+	}
+}
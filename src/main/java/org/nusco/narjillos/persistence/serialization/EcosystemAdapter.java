@@ -44,7 +44,7 @@ class EcosystemAdapter implements JsonSerializer<Ecosystem>, JsonDeserializer<Ec
 		JsonObject jsonObject = json.getAsJsonObject();
 
 		long size = jsonObject.get("size").getAsLong();
-		Ecosystem result = new Ecosystem(size, false);
+		Ecosystem result = new Ecosystem(size);
 
 		JsonArray foodPellets = jsonObject.get("foodPellets").getAsJsonArray();
 		for (int i = 0; i < foodPellets.size(); i++) {
@@ -1,8 +1,10 @@
 package org.nusco.narjillos.persistence.serialization;
 
+import org.nusco.narjillos.core.chemistry.Atmosphere;
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.things.Energy;
 import org.nusco.narjillos.core.things.Thing;
+import org.nusco.narjillos.core.utilities.NumGen;
 import org.nusco.narjillos.creature.body.ConnectedOrgan;
 import org.nusco.narjillos.creature.body.Fiber;
 import org.nusco.narjillos.creature.body.MovingOrgan;
@@ -27,6 +29,8 @@ public class JSON {
 		.registerTypeAdapter(MovingOrgan.class, new OrganAdapter())
 		.registerTypeAdapter(Thing.class, new ThingAdapter())
 		.registerTypeAdapter(Ecosystem.class, new EcosystemAdapter())
+		.registerTypeAdapter(NumGen.class, new NumGenAdapter())
+		.registerTypeAdapter(Atmosphere.class, new AtmosphereAdapter())
 		.enableComplexMapKeySerialization()
 		.create();
 
@@ -0,0 +1,43 @@
+package org.nusco.narjillos.persistence.serialization;
+
+import java.lang.reflect.Type;
+
+import org.nusco.narjillos.core.utilities.NumGen;
+
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+/**
+ * Serializes a NumGen as its seed and serial. It also reads the older format,
+ * where the seed was nested in a serialized java.util.Random: Gson has no
+ * adapter for AtomicLong, so it serialized the Random's seed as an object
+ * with the AtomicLong's "value" field.
+ */
+class NumGenAdapter implements JsonSerializer<NumGen>, JsonDeserializer<NumGen> {
+
+	@Override
+	public JsonElement serialize(NumGen numGen, Type type, JsonSerializationContext context) {
+		JsonObject result = new JsonObject();
+		result.addProperty("seed", numGen.getSeed());
+		result.addProperty("serial", numGen.getSerial());
+		return result;
+	}
+
+	@Override
+	public NumGen deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+		JsonObject jsonObject = json.getAsJsonObject();
+		long serial = jsonObject.get("serial").getAsLong();
+
+		if (!jsonObject.has("random"))
+			return new NumGen(jsonObject.get("seed").getAsLong(), serial);
+
+		// Older experiments nest the seed in a serialized java.util.Random
+		JsonObject seed = jsonObject.getAsJsonObject("random").getAsJsonObject("seed");
+		return new NumGen(seed.get("value").getAsLong(), serial);
+	}
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
+import org.nusco.narjillos.core.configuration.Configuration;
 import org.nusco.narjillos.core.utilities.Version;
 
 public class CommandLineOptionsTest {
@@ -99,6 +100,20 @@ public class CommandLineOptionsTest {
 		}
 	}
 
+	@Test
+	public void acceptsANumberOfTiles() {
+		CommandLineOptions options = new CommandLineOptions("-t", "4");
+
+		assertEquals(4, options.getTilesPerEdge());
+	}
+
+	@Test
+	public void defaultsToTheConfiguredNumberOfTiles() {
+		CommandLineOptions options = new CommandLineOptions();
+
+		assertEquals(Configuration.ECOSYSTEM_TILES_PER_EDGE, options.getTilesPerEdge());
+	}
+
 	@Test
 	public void refusesDnaAndFileTogether() {
 		try {
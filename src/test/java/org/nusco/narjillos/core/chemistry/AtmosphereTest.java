@@ -1,6 +1,8 @@
 package org.nusco.narjillos.core.chemistry;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.nusco.narjillos.core.chemistry.Element.HYDROGEN;
 import static org.nusco.narjillos.core.chemistry.Element.NITROGEN;
 import static org.nusco.narjillos.core.chemistry.Element.OXYGEN;
@@ -122,4 +124,55 @@ public class AtmosphereTest {
 		assertEquals(15, atmosphere.getAmountOf(HYDROGEN), 0.0);
 		assertEquals(15, atmosphere.getAmountOf(NITROGEN), 0.0);
 	}
+
+	@Test
+	public void convertsBatchesOfElements() {
+		Atmosphere atmosphere = new Atmosphere(10, 0);
+		Conversions conversions = new Conversions();
+		for (int i = 0; i < 3; i++)
+			conversions.add(OXYGEN, HYDROGEN);
+		conversions.add(NITROGEN, OXYGEN);
+		conversions.add(ZERO, OXYGEN);
+
+		assertTrue(atmosphere.convertAll(conversions));
+
+		assertEquals(8, atmosphere.getAmountOf(OXYGEN), 0.0);
+		assertEquals(13, atmosphere.getAmountOf(HYDROGEN), 0.0);
+		assertEquals(9, atmosphere.getAmountOf(NITROGEN), 0.0);
+	}
+
+	@Test
+	public void refusesBatchesThatCouldDepleteAnElement() {
+		Atmosphere atmosphere = new Atmosphere(2, 0);
+		Conversions conversions = new Conversions();
+		for (int i = 0; i < 3; i++)
+			conversions.add(OXYGEN, HYDROGEN);
+
+		assertFalse(atmosphere.convertAll(conversions));
+
+		assertEquals(2, atmosphere.getAmountOf(OXYGEN), 0.0);
+		assertEquals(2, atmosphere.getAmountOf(HYDROGEN), 0.0);
+	}
+
+	@Test
+	public void acceptsBatchesThatDepleteAnElementInTheLastConversion() {
+		Atmosphere atmosphere = new Atmosphere(2, 0);
+		Conversions conversions = new Conversions();
+		for (int i = 0; i < 2; i++)
+			conversions.add(OXYGEN, HYDROGEN);
+
+		assertTrue(atmosphere.convertAll(conversions));
+
+		assertEquals(0, atmosphere.getAmountOf(OXYGEN), 0.0);
+		assertEquals(4, atmosphere.getAmountOf(HYDROGEN), 0.0);
+	}
+
+	@Test
+	public void refusesBatchesIfTheAmountsAreNotWholeNumbers() {
+		Atmosphere atmosphere = new Atmosphere(10.5, 0);
+		Conversions conversions = new Conversions();
+		conversions.add(OXYGEN, HYDROGEN);
+
+		assertFalse(atmosphere.convertAll(conversions));
+	}
 }
@@ -0,0 +1,78 @@
+package org.nusco.narjillos.core.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BoundingVolumeHierarchyTest {
+
+	@Test
+	public void containsAllItsSegments() {
+		BoundingVolumeHierarchy hierarchy = createHierarchy(
+			new Segment(Vector.cartesian(0, 0), Vector.cartesian(10, 0)),
+			new Segment(Vector.cartesian(10, 0), Vector.cartesian(0, -20)),
+			new Segment(Vector.cartesian(10, -20), Vector.cartesian(-30, 5)));
+
+		BoundingBox boundingBox = hierarchy.getBoundingBox();
+
+		assertEquals(-20, boundingBox.left, 0.0);
+		assertEquals(10, boundingBox.right, 0.0);
+		assertEquals(-20, boundingBox.bottom, 0.0);
+		assertEquals(0, boundingBox.top, 0.0);
+	}
+
+	@Test
+	public void followsItsSegmentsWhenRefitted() {
+		BoundingVolumeHierarchy hierarchy = createHierarchy(
+			new Segment(Vector.cartesian(0, 0), Vector.cartesian(10, 0)),
+			new Segment(Vector.cartesian(10, 0), Vector.cartesian(10, 0)));
+
+		hierarchy.setSegment(1, new Segment(Vector.cartesian(10, 0), Vector.cartesian(0, 50)));
+		hierarchy.refit();
+
+		assertEquals(10, hierarchy.getBoundingBox().right, 0.0);
+		assertEquals(50, hierarchy.getBoundingBox().top, 0.0);
+	}
+
+	@Test
+	public void knowsWhetherAPointIsClose() {
+		BoundingVolumeHierarchy hierarchy = createLShapedHierarchy();
+
+		assertTrue(hierarchy.isCloseTo(Vector.cartesian(50, 5), 10));
+		assertTrue(hierarchy.isCloseTo(Vector.cartesian(105, 50), 10));
+		assertFalse(hierarchy.isCloseTo(Vector.cartesian(50, 50), 10));
+		assertFalse(hierarchy.isCloseTo(Vector.cartesian(150, 50), 10));
+	}
+
+	@Test
+	public void knowsWhetherAnotherHierarchyIsClose() {
+		BoundingVolumeHierarchy hierarchy = createLShapedHierarchy();
+
+		BoundingVolumeHierarchy crossing = createHierarchy(new Segment(Vector.cartesian(50, -50), Vector.cartesian(0, 100)));
+		BoundingVolumeHierarchy nearby = createHierarchy(new Segment(Vector.cartesian(95, 20), Vector.cartesian(-40, 40)));
+		BoundingVolumeHierarchy inTheElbow = createHierarchy(new Segment(Vector.cartesian(20, 80), Vector.cartesian(60, -60)));
+
+		assertTrue(hierarchy.isCloseTo(crossing, 10));
+		assertTrue(hierarchy.isCloseTo(nearby, 10));
+		assertFalse(hierarchy.isCloseTo(inTheElbow, 10));
+	}
+
+	// Goes right from the origin, then up.
+	private BoundingVolumeHierarchy createLShapedHierarchy() {
+		return createHierarchy(
+			new Segment(Vector.cartesian(0, 0), Vector.cartesian(50, 0)),
+			new Segment(Vector.cartesian(50, 0), Vector.cartesian(50, 0)),
+			new Segment(Vector.cartesian(100, 0), Vector.cartesian(0, 50)),
+			new Segment(Vector.cartesian(100, 50), Vector.cartesian(0, 50)));
+	}
+
+	private BoundingVolumeHierarchy createHierarchy(Segment... segments) {
+		BoundingVolumeHierarchy result = new BoundingVolumeHierarchy(segments.length);
+		for (int i = 0; i < segments.length; i++)
+			result.setSegment(i, segments[i]);
+		result.refit();
+		return result;
+	}
+}
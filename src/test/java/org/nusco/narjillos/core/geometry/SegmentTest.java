@@ -32,6 +32,15 @@ public class SegmentTest {
 		assertEquals(40, Math.sqrt(segment.getMinimumDistanceFromPointSquared(Vector.cartesian(50, 0))), 0.001);
 	}
 
+	@Test
+	public void calculatesTheMinimumDistanceFromRawCoordinates() {
+		Segment segment = new Segment(Vector.cartesian(10, 20), Vector.cartesian(90, 30));
+
+		assertEquals(100, Segment.getMinimumDistanceFromPointSquared(0, 0, 90, 0, 50, 10), 0.001);
+		assertEquals(segment.getMinimumDistanceFromPointSquared(Vector.cartesian(50, 60)),
+			Segment.getMinimumDistanceFromPointSquared(10, 20, 90, 30, 50, 60), 0);
+	}
+
 	@Test
 	public void hasAStartPoint() {
 		Segment segment = new Segment(Vector.cartesian(1, 2), Vector.cartesian(4, 6));
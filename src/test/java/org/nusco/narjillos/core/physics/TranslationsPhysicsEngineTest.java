@@ -0,0 +1,57 @@
+package org.nusco.narjillos.core.physics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.nusco.narjillos.core.configuration.Configuration;
+import org.nusco.narjillos.core.geometry.Segment;
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.geometry.ZeroVectorAngleException;
+
+public class TranslationsPhysicsEngineTest {
+
+	@Test
+	public void givesTheSameResultsAsSummingTheVectorsOfEachMovement() throws ZeroVectorAngleException {
+		Random random = new Random(42);
+		TranslationsPhysicsEngine engine = new TranslationsPhysicsEngine(100);
+		Vector totalLinearMomentum = Vector.ZERO;
+		double totalEnergy = 0;
+
+		for (int i = 0; i < 50; i++) {
+			Segment initialPosition = randomSegment(random);
+			Segment finalPosition = randomSegment(random);
+			double mass = random.nextDouble() * 10;
+
+			engine.registerMovement(initialPosition, finalPosition, mass);
+
+			Vector linearVelocity = finalPosition.getDistanceFrom(initialPosition);
+			totalLinearMomentum = totalLinearMomentum.plus(linearVelocity.by(mass));
+			totalEnergy += mass * linearVelocity.getLength() * linearVelocity.getLength() / 2;
+		}
+
+		Vector expectedMomentum = totalLinearMomentum.by(-1.0 / 100);
+		Vector expectedTranslation = Vector.polar(expectedMomentum.getAngle(), Viscosity.limit(expectedMomentum.getLength()));
+		Vector translation = engine.getTranslation();
+		assertEquals(expectedTranslation.x, translation.x, 0.0);
+		assertEquals(expectedTranslation.y, translation.y, 0.0);
+		assertEquals(totalEnergy * Configuration.PHYSICS_ENERGY_EXPENSE_PER_JOULE / 1_000_000_000L, engine.getEnergy(), 0.0);
+	}
+
+	@Test
+	public void forgetsEverythingOnReset() {
+		TranslationsPhysicsEngine engine = new TranslationsPhysicsEngine(10);
+		engine.registerMovement(new Segment(Vector.ZERO, Vector.cartesian(10, 0)), new Segment(Vector.cartesian(0, 5), Vector.cartesian(10, 0)), 3);
+
+		engine.reset(10);
+
+		assertEquals(0.0, engine.getTranslation().getLength(), 0.0);
+		assertEquals(0.0, engine.getEnergy(), 0.0);
+	}
+
+	private static Segment randomSegment(Random random) {
+		return new Segment(Vector.cartesian(random.nextDouble() * 100, random.nextDouble() * 100),
+			Vector.cartesian(random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10));
+	}
+}
@@ -0,0 +1,78 @@
+package org.nusco.narjillos.core.things;
+
+import org.junit.Test;
+import org.nusco.narjillos.core.geometry.Vector;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class CellTableTest {
+
+	CellTable cellTable = new CellTable();
+
+	@Test
+	public void returnsNoCellForUnknownLocations() {
+		assertThat(cellTable.find(1, 1), is(CellTable.NO_CELL));
+	}
+
+	@Test
+	public void createsCellsOnDemand() {
+		int cell = cellTable.findOrCreate(3, -2);
+
+		assertThat(cellTable.find(3, -2), is(cell));
+		assertThat(cellTable.findOrCreate(3, -2), is(cell));
+		assertThat(HashedLocation.unpack(cellTable.getKey(cell)), is(HashedLocation.at(3, -2)));
+	}
+
+	@Test
+	public void keepsDifferentLocationsInDifferentCells() {
+		int cell1 = cellTable.findOrCreate(1, -1);
+		int cell2 = cellTable.findOrCreate(-1, 1);
+
+		assertNotEquals(cell1, cell2);
+	}
+
+	@Test
+	public void keepsCellIdsStableWhileGrowing() {
+		int firstCell = cellTable.findOrCreate(1, 1);
+
+		for (int lx = 1; lx <= 100; lx++)
+			for (int ly = -100; ly <= -1; ly++)
+				cellTable.findOrCreate(lx, ly);
+
+		assertThat(cellTable.find(1, 1), is(firstCell));
+		assertThat(cellTable.getNumberOfCells(), is(10001));
+		assertThat(HashedLocation.unpack(cellTable.getKey(cellTable.find(57, -42))), is(HashedLocation.at(57, -42)));
+	}
+
+	@Test
+	public void storesThingsInInsertionOrder() {
+		int cell = cellTable.findOrCreate(1, 1);
+		Thing[] things = new Thing[10];
+		for (int i = 0; i < things.length; i++) {
+			things[i] = new TestThing(Vector.cartesian(i, i));
+			cellTable.add(cell, things[i]);
+		}
+
+		cellTable.remove(cell, things[3]);
+
+		assertThat(cellTable.size(cell), is(9));
+		assertSame(things[2], cellTable.get(cell, 2));
+		assertSame(things[4], cellTable.get(cell, 3));
+		assertSame(things[9], cellTable.get(cell, 8));
+	}
+
+	@Test
+	public void knowsHowManyRingsCoverTheWholeGrid() {
+		assertThat(cellTable.getNumberOfRingsAround(1, 1), is(0L));
+
+		cellTable.findOrCreate(1, 1);
+		assertThat(cellTable.getNumberOfRingsAround(1, 1), is(1L));
+
+		cellTable.findOrCreate(-2, 3);
+		assertThat(cellTable.getNumberOfRingsAround(1, 1), is(3L));
+		assertThat(cellTable.getNumberOfRingsAround(-1, 2), is(2L));
+	}
+}
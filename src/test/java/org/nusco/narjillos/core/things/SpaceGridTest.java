@@ -104,6 +104,61 @@ public class SpaceGridTest {
 		));
 	}
 
+	@Test
+	public void updatesTheLocationsOfThingsThatMoved() {
+		TestThing thing = new TestThing(Vector.cartesian(100, 100));
+		space.add(thing);
+
+		thing.moveTo(Vector.cartesian(1000, -100));
+		space.update(thing);
+
+		assertThat(space.getHashedLocationsOf(thing).get(), contains(HashedLocation.at(3, -1)));
+		assertThat(space.getThingsAtHashedLocation(1, 1), is(emptyCollectionOf(Thing.class)));
+		assertThat(space.getThingsAtHashedLocation(3, -1), contains(thing));
+	}
+
+	@Test
+	public void keepsTheOrderOfThingsThatDidNotChangeLocation() {
+		TestThing thing1 = new TestThing(Vector.cartesian(100, 100));
+		TestThing thing2 = new TestThing(Vector.cartesian(200, 200));
+		space.add(thing1);
+		space.add(thing2);
+
+		thing1.moveTo(Vector.cartesian(300, 300));
+		space.update(thing1);
+
+		assertThat(space.getThingsAtHashedLocation(1, 1), contains(thing1, thing2));
+	}
+
+	@Test
+	public void ignoresUpdatesOfUnknownThings() {
+		TestThing thing = new TestThing(Vector.cartesian(100, 100));
+
+		space.update(thing);
+
+		assertFalse(space.contains(thing));
+	}
+
+	@Test
+	public void defersChangesUntilCommitWhileFrozen() {
+		TestThing thing1 = new TestThing(Vector.cartesian(100, 100));
+		TestThing thing2 = new TestThing(Vector.cartesian(200, 200));
+		space.add(thing1);
+
+		space.freeze();
+		space.add(thing2);
+		space.remove(thing1);
+
+		assertTrue(space.contains(thing1));
+		assertFalse(space.contains(thing2));
+
+		space.commit();
+
+		assertFalse(space.contains(thing1));
+		assertTrue(space.contains(thing2));
+		assertFalse(space.isFrozen());
+	}
+
 	@Test
 	public void aLocationCanContainMultipleThings() {
 		Thing punctiformThing1 = new TestThing(Vector.cartesian(1200, 4000));
@@ -130,6 +185,28 @@ public class SpaceGridTest {
 		assertThat(space.getAll("thing"), contains(thing1, thing2, thing3));
 	}
 
+	@Test
+	public void movesTheLastThingInThePlaceOfARemovedThing() {
+		Thing thing1 = new TestThing(Vector.cartesian(1, 1));
+		Thing thing2 = new TestThing(Vector.cartesian(2, 2));
+		Thing thing3 = new TestThing(Vector.cartesian(1000, 1000));
+		Thing thing4 = new TestThing(Vector.cartesian(3, 3));
+		space.add(thing1);
+		space.add(thing2);
+		space.add(thing3);
+
+		space.remove(thing1);
+
+		assertThat(space.viewAll(), contains(thing3, thing2));
+
+		space.add(thing4);
+		space.remove(thing3);
+		space.remove(thing4);
+
+		assertThat(space.viewAll(), contains(thing2));
+		assertThat(space.getAll(""), contains(thing2));
+	}
+
 	@Test
 	public void identifiesSpecificThings() {
 		TestThing thing = new TestThing(Vector.cartesian(100, 200));
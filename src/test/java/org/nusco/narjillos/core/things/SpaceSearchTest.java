@@ -1,12 +1,24 @@
 package org.nusco.narjillos.core.things;
 
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyCollectionOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
 import org.junit.Test;
+import org.nusco.narjillos.core.geometry.BoundingBox;
+import org.nusco.narjillos.core.geometry.BoundingVolumeHierarchy;
+import org.nusco.narjillos.core.geometry.Segment;
 import org.nusco.narjillos.core.geometry.Vector;
 
 public class SpaceSearchTest {
@@ -34,6 +46,269 @@ public class SpaceSearchTest {
 		assertThat(neighbors, contains(things[2], things[1], things[3], things[4], things[5]));
 	}
 
+	@Test
+	public void findsTheClosestThing() {
+		Thing thing = new TestThing(Vector.cartesian(100, 100));
+		Thing closest = new TestThing(Vector.cartesian(150, 90));
+		space.add(thing);
+		space.add(new TestThing(Vector.cartesian(-150, 90)));
+		space.add(closest);
+		space.add(new TestThing(Vector.cartesian(170, 100)));
+
+		assertSame(closest, space.findClosestTo(thing, "thing"));
+	}
+
+	@Test
+	public void findsTheClosestThingFarAway() {
+		Thing thing = new TestThing(Vector.cartesian(100, 100));
+		Thing closest = new TestThing(Vector.cartesian(-3000, 5000));
+		space.add(thing);
+		space.add(new TestThing(Vector.cartesian(9000, -7000)));
+		space.add(closest);
+
+		assertSame(closest, space.findClosestTo(thing, "thing"));
+	}
+
+	@Test
+	public void findsTheClosestThingEvenIfItIsInAFartherCell() {
+		// The thing is close to the right edge of its cell. The cell
+		// two steps to the right is closer than the cell diagonally
+		// above it.
+		Thing thing = new TestThing(Vector.cartesian(399, 0.5));
+		Thing closest = new TestThing(Vector.cartesian(801, 0.5));
+		space.add(thing);
+		space.add(new TestThing(Vector.cartesian(1, 799)));
+		space.add(closest);
+
+		assertSame(closest, space.findClosestTo(thing, "thing"));
+	}
+
+	@Test
+	public void findsTheClosestThingAmongstManyThings() {
+		Thing thing = new TestThing(at(1, 1));
+		space.add(thing);
+		for (int i = 0; i < 100; i++)
+			space.add(new TestThing(at(random.nextInt(40) - 20, random.nextInt(40) - 20)));
+
+		Thing expected = null;
+		double minDistance = Double.MAX_VALUE;
+		for (Thing candidate : space.getAll("thing")) {
+			double distance = candidate.getPosition().minus(thing.getPosition()).getLength();
+			if (candidate != thing && distance < minDistance) {
+				minDistance = distance;
+				expected = candidate;
+			}
+		}
+
+		assertSame(expected, space.findClosestTo(thing, "thing"));
+	}
+
+	@Test
+	public void returnsNullIfThereAreNoOtherThingsWithTheLabel() {
+		Thing thing = new TestThing(Vector.cartesian(100, 100));
+		space.add(thing);
+
+		assertNull(space.findClosestTo(thing, "thing"));
+		assertNull(space.findClosestTo(thing, "food_pellet"));
+	}
+
+	@Test
+	public void findsOnlyThingsOfTheGivenType() {
+		Thing thing = new TestThing(Vector.cartesian(100, 100));
+		Thing otherThing = new OtherThing(Vector.cartesian(110, 100));
+		Thing closestThing = new TestThing(Vector.cartesian(150, 100));
+		space.add(thing);
+		space.add(otherThing);
+		space.add(closestThing);
+
+		assertSame(closestThing, space.findClosestTo(thing, space.getTypeId("thing")));
+		assertSame(otherThing, space.findClosestTo(thing, space.getTypeId("other_thing")));
+		assertSame(otherThing, space.findClosestTo(thing, Space.ALL_TYPES));
+	}
+
+	@Test
+	public void findsTheThingsCloserThanADistance() {
+		Thing near = new TestThing(Vector.cartesian(150, 90));
+		Thing farButInTheSameCell = new TestThing(Vector.cartesian(390, 390));
+		Thing nearButInAnotherCell = new TestThing(Vector.cartesian(-50, 100));
+		space.add(near);
+		space.add(farButInTheSameCell);
+		space.add(nearButInAnotherCell);
+		space.add(new TestThing(Vector.cartesian(9000, -7000)));
+		for (int i = 0; i < 100; i++)
+			space.add(new TestThing(Vector.cartesian(i * 100, 10000)));
+
+		Set<Thing> found = space.findCloserThan(Vector.cartesian(100, 100), 200, space.getTypeId("thing"));
+
+		assertThat(found, is(new HashSet<>(Arrays.asList(near, nearButInAnotherCell))));
+	}
+
+	@Test
+	public void findsThingsThatAreBiggerThanACell() {
+		// Only the corners of the thing are in the Space's grid, and they
+		// are far from its position.
+		Thing bigThing = new TestThing(Vector.cartesian(100, 100)) {
+			@Override
+			public BoundingBox getBoundingBox() {
+				return new BoundingBox(-2000, 2000, -2000, 2000);
+			}
+		};
+		space.add(bigThing);
+		for (int i = 0; i < 100; i++)
+			space.add(new TestThing(Vector.cartesian(i * 100, 10000)));
+
+		Set<Thing> found = space.findCloserThan(Vector.cartesian(110, 110), 50, space.getTypeId("thing"));
+
+		assertThat(found, contains(bigThing));
+	}
+
+	@Test
+	public void findsTheClosestThingExceptTheExcludedOne() {
+		Thing excluded = new TestThing(Vector.cartesian(110, 100));
+		Thing closest = new TestThing(Vector.cartesian(150, 100));
+		space.add(excluded);
+		space.add(closest);
+
+		assertSame(closest, space.findClosestTo(Vector.cartesian(100, 100), space.getTypeId("thing"), excluded));
+	}
+
+	@Test
+	public void detectsCollisionsWithThingsOfTheGivenType() {
+		Thing thing = new TestThing(Vector.cartesian(100, 100));
+		Thing otherThing = new OtherThing(Vector.cartesian(100, 100));
+		space.add(thing);
+		space.add(otherThing);
+
+		Segment movement = new Segment(Vector.cartesian(90, 100), Vector.cartesian(20, 0));
+
+		assertThat(space.detectCollisions(movement, space.getTypeId("other_thing")), contains(otherThing));
+		assertThat(space.detectCollisions(movement, Space.ALL_TYPES), contains(thing, otherThing));
+	}
+
+	@Test
+	public void detectsCollisionsAlongMovementsThatSpanManyCells() {
+		Thing nearTheStart = new TestThing(Vector.cartesian(10, 5));
+		Thing farFromTheStart = new TestThing(Vector.cartesian(1990, -5));
+		Thing offTheMovement = new TestThing(Vector.cartesian(1000, 500));
+		space.add(nearTheStart);
+		space.add(farFromTheStart);
+		space.add(offTheMovement);
+		for (int i = 0; i < 100; i++)
+			space.add(new TestThing(Vector.cartesian(i * 100, 10000)));
+
+		Segment movement = new Segment(Vector.ZERO, Vector.cartesian(2000, 0));
+
+		assertThat(space.detectCollisions(movement, "thing"), contains(nearTheStart, farFromTheStart));
+	}
+
+	@Test
+	public void detectsCollisionsInBatches() {
+		Thing thing1 = new TestThing(Vector.cartesian(10, 5));
+		Thing thing2 = new TestThing(Vector.cartesian(1990, -5));
+		Thing thing3 = new TestThing(Vector.cartesian(100, 100));
+		space.add(thing1);
+		space.add(thing2);
+		space.add(thing3);
+		for (int i = 0; i < 100; i++)
+			space.add(new TestThing(Vector.cartesian(i * 100, 10000)));
+
+		List<Segment> movements = Arrays.asList(
+			new Segment(Vector.ZERO, Vector.cartesian(2000, 0)),
+			new Segment(Vector.cartesian(5000, 5000), Vector.cartesian(10, 0)),
+			new Segment(Vector.cartesian(90, 100), Vector.cartesian(20, 0)));
+
+		Collisions collisions = space.detectCollisions(movements, space.getTypeId("thing"));
+
+		assertThat(collisions.getNumberOfMovements(), is(3));
+		assertThat(collisions.getNumberOfCollisions(0), is(2));
+		assertSame(thing1, collisions.getCollidedThing(0, 0));
+		assertSame(thing2, collisions.getCollidedThing(0, 1));
+		assertThat(collisions.getNumberOfCollisions(1), is(0));
+		assertThat(collisions.getNumberOfCollisions(2), is(1));
+		assertSame(thing3, collisions.getCollidedThing(2, 0));
+	}
+
+	@Test
+	public void detectsTheSameCollisionsInBatchesAsOneByOne() {
+		for (int i = 0; i < 200; i++)
+			space.add(new TestThing(at(random.nextInt(10) - 5, random.nextInt(10) - 5)));
+
+		List<Segment> movements = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			movements.add(new Segment(at(random.nextInt(10) - 5, random.nextInt(10) - 5), Vector.cartesian(random.nextInt(600) - 300, random.nextInt(600) - 300)));
+
+		Collisions collisions = space.detectCollisions(movements, space.getTypeId("thing"));
+
+		for (int i = 0; i < movements.size(); i++) {
+			List<Thing> collidedThings = new ArrayList<>();
+			for (int j = 0; j < collisions.getNumberOfCollisions(i); j++)
+				collidedThings.add(collisions.getCollidedThing(i, j));
+
+			assertThat(collidedThings, is(new ArrayList<>(space.detectCollisions(movements.get(i), "thing"))));
+		}
+	}
+
+	@Test
+	public void gathersTheCollisionsOfMultipleBatches() {
+		Thing thing1 = new TestThing(Vector.cartesian(10, 5));
+		Thing thing2 = new TestThing(Vector.cartesian(100, 100));
+		space.add(thing1);
+		space.add(thing2);
+
+		int typeId = space.getTypeId("thing");
+		Collisions batch1 = space.detectCollisions(Arrays.asList(
+			new Segment(Vector.ZERO, Vector.cartesian(20, 0)),
+			new Segment(Vector.cartesian(5000, 5000), Vector.cartesian(10, 0))), typeId);
+		Collisions batch2 = space.detectCollisions(Arrays.asList(
+			new Segment(Vector.cartesian(90, 100), Vector.cartesian(20, 0))), typeId);
+
+		Collisions collisions = Collisions.gather(new Collisions[] { batch1, batch2 }, new int[] { 1, 0, 0 }, new int[] { 0, 1, 0 });
+
+		assertThat(collisions.getNumberOfMovements(), is(3));
+		assertThat(collisions.getNumberOfCollisions(0), is(1));
+		assertSame(thing2, collisions.getCollidedThing(0, 0));
+		assertThat(collisions.getNumberOfCollisions(1), is(0));
+		assertThat(collisions.getNumberOfCollisions(2), is(1));
+		assertSame(thing1, collisions.getCollidedThing(2, 0));
+	}
+
+	@Test
+	public void detectsContactsWithTheSegmentsOfCompositeThings() {
+		// A long snake that spans many cells
+		CompositeTestThing snake = new CompositeTestThing(
+			new Segment(Vector.cartesian(0, 0), Vector.cartesian(1000, 0)),
+			new Segment(Vector.cartesian(1000, 0), Vector.cartesian(0, 1000)));
+		Thing nearTheTail = new OtherThing(Vector.cartesian(990, 900));
+		Thing inTheElbow = new OtherThing(Vector.cartesian(500, 500));
+		CompositeTestThing crossingSnake = new CompositeTestThing(
+			new Segment(Vector.cartesian(-600, 300), Vector.cartesian(600, 0)),
+			new Segment(Vector.cartesian(0, 300), Vector.cartesian(500, -500)));
+		CompositeTestThing farSnake = new CompositeTestThing(
+			new Segment(Vector.cartesian(-1000, -1000), Vector.cartesian(500, 0)));
+		space.add(snake);
+		space.add(nearTheTail);
+		space.add(inTheElbow);
+		space.add(crossingSnake);
+		space.add(farSnake);
+		for (int i = 0; i < 100; i++) {
+			space.add(new TestThing(Vector.cartesian(i * 100, 10000)));
+			space.add(new OtherThing(Vector.cartesian(i * 100, 10000)));
+		}
+
+		assertThat(space.detectContacts(snake, space.getTypeId("other_thing")), contains(nearTheTail));
+		assertThat(space.detectContacts(snake, space.getTypeId("thing")), contains(crossingSnake));
+		assertThat(space.detectContacts(farSnake, Space.ALL_TYPES), is(emptyCollectionOf(Thing.class)));
+	}
+
+	@Test
+	public void givesTheSameTypeIdToTheSameLabel() {
+		int typeId = space.getTypeId("thing");
+
+		assertNotEquals(typeId, space.getTypeId("other_thing"));
+		assertThat(space.getTypeId("thing"), is(typeId));
+		assertThat(space.getTypeId(""), is(Space.ALL_TYPES));
+	}
+
 	// A pseudorandom location in square "n, m" of the grid
 	private Vector at(int gridX, int gridY) {
 		return Vector.cartesian(at(gridX), at(gridY));
@@ -46,4 +321,39 @@ public class SpaceSearchTest {
 		double offset = HashedLocation.GRID_SIZE * random.nextInt(100) * 0.01;
 		return firstCoordinateLocation + offset;
 	}
+
+	private static class CompositeTestThing extends TestThing implements CompositeThing {
+
+		private final BoundingVolumeHierarchy hierarchy;
+
+		CompositeTestThing(Segment... segments) {
+			super(segments[0].getStartPoint());
+			hierarchy = new BoundingVolumeHierarchy(segments.length);
+			for (int i = 0; i < segments.length; i++)
+				hierarchy.setSegment(i, segments[i]);
+			hierarchy.refit();
+		}
+
+		@Override
+		public BoundingBox getBoundingBox() {
+			return hierarchy.getBoundingBox();
+		}
+
+		@Override
+		public BoundingVolumeHierarchy getBoundingVolumeHierarchy() {
+			return hierarchy;
+		}
+	}
+
+	private static class OtherThing extends TestThing {
+
+		OtherThing(Vector position) {
+			super(position);
+		}
+
+		@Override
+		public String getLabel() {
+			return "other_thing";
+		}
+	}
 }
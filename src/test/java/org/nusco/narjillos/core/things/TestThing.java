@@ -6,7 +6,7 @@ import org.nusco.narjillos.core.geometry.Vector;
 
 class TestThing implements Thing {
 
-	private final Vector position;
+	private Vector position;
 
 	public TestThing(Vector position) {
 		this.position = position;
@@ -17,6 +17,10 @@ class TestThing implements Thing {
 		return position;
 	}
 
+	public void moveTo(Vector position) {
+		this.position = position;
+	}
+
 	@Override
 	public Vector getCenter() {
 		return getPosition();
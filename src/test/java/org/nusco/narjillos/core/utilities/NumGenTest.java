@@ -3,6 +3,7 @@ package org.nusco.narjillos.core.utilities;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.junit.Test;
@@ -32,6 +33,20 @@ public class NumGenTest {
 		assertAreInSynch(numGen1, numGen2);
 	}
 
+	@Test
+	public void generatesTheSameNumbersAsJavaRandom() {
+		// NumGen's seed is the internal state of the Random,
+		// that Random scrambles when you give it a seed
+		NumGen numGen = new NumGen(123 ^ 0x5DEECE66DL);
+		Random random = new Random(123);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(random.nextDouble(), numGen.nextDouble(), 0.0);
+			assertEquals(random.nextInt(), numGen.nextInt());
+			assertEquals(random.nextLong(), numGen.nextLong());
+		}
+	}
+
 	@Test
 	public void generatesASerialNumber() {
 		NumGen numGen = new NumGen(123);
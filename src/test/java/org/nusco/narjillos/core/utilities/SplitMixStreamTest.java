@@ -0,0 +1,55 @@
+package org.nusco.narjillos.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+
+public class SplitMixStreamTest {
+
+	@Test
+	public void generatesTheSameNumbersForTheSameSeedAndEntity() {
+		RandomStream stream1 = new SplitMixStream(123, 42);
+		RandomStream stream2 = new SplitMixStream(123, 42);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(stream2.nextDouble(), stream1.nextDouble(), 0.0);
+			assertEquals(stream2.nextInt(), stream1.nextInt());
+			assertEquals(stream2.nextByte(), stream1.nextByte());
+		}
+	}
+
+	@Test
+	public void generatesDifferentNumbersForDifferentSeedsOrEntities() {
+		double number = new SplitMixStream(123, 42).nextDouble();
+
+		assertNotEquals(number, new SplitMixStream(124, 42).nextDouble());
+		assertNotEquals(number, new SplitMixStream(123, 43).nextDouble());
+	}
+
+	@Test
+	public void generatesDoublesBetweenZeroAndOne() {
+		RandomStream stream = new SplitMixStream(123, 42);
+
+		for (int i = 0; i < 1000; i++) {
+			double number = stream.nextDouble();
+			assertTrue(number >= 0 && number < 1);
+		}
+	}
+
+	@Test
+	public void canBeUsedFromAnyThread() throws InterruptedException {
+		final RandomStream stream = new SplitMixStream(123, 42);
+		final double expected = new SplitMixStream(123, 42).nextDouble();
+
+		final ConcurrentLinkedQueue<Double> results = new ConcurrentLinkedQueue<>();
+		Thread thread = new Thread(() -> results.add(stream.nextDouble()));
+		thread.start();
+		thread.join();
+
+		assertEquals(expected, results.peek(), 0.0);
+	}
+}
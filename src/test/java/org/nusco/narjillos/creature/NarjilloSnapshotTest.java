@@ -0,0 +1,65 @@
+package org.nusco.narjillos.creature;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.things.LifeFormEnergy;
+import org.nusco.narjillos.genomics.DNA;
+
+public class NarjilloSnapshotTest {
+
+	private final Narjillo narjillo = new Narjillo(new DNA(1, "{0_255_10_10_255_255_255_255_0_0_0}{0_255_10_10_255_255_255_255_0_0_0}"), Vector.ZERO, 90,
+		new LifeFormEnergy(1000, Double.MAX_VALUE));
+
+	@Test
+	public void isTakenAtBirth() {
+		NarjilloSnapshot snapshot = narjillo.getSnapshot();
+
+		assertEquals(narjillo.getPosition(), snapshot.getPosition());
+		assertEquals(narjillo.getCenterOfMass(), snapshot.getCenterOfMass());
+		assertEquals(narjillo.getRadius(), snapshot.getRadius(), 0.0);
+		assertEquals(1000, snapshot.getEnergy(), 0.0);
+	}
+
+	@Test
+	public void staysTheSameUntilItsPublished() {
+		NarjilloSnapshot snapshot = narjillo.getSnapshot();
+
+		narjillo.tick();
+		narjillo.damage();
+
+		assertSame(snapshot, narjillo.getSnapshot());
+		assertFalse(snapshot.isInPain());
+	}
+
+	@Test
+	public void isUpdatedWhenItsPublished() {
+		narjillo.markObserved();
+
+		narjillo.tick();
+		narjillo.damage();
+		narjillo.publishSnapshot();
+
+		NarjilloSnapshot snapshot = narjillo.getSnapshot();
+		assertEquals(narjillo.getPosition(), snapshot.getPosition());
+		assertEquals(narjillo.getEnergy().getValue(), snapshot.getEnergy(), 0.0);
+		assertEquals(narjillo.getAge(), snapshot.getAge());
+		assertTrue(snapshot.isInPain());
+		for (int i = 0; i < narjillo.getOrgans().size(); i++) {
+			assertEquals(narjillo.getOrgans().get(i).getStartPoint(), snapshot.getOrgan(i).getStartPoint());
+			assertEquals(narjillo.getOrgans().get(i).getAbsoluteAngle(), snapshot.getOrgan(i).getAbsoluteAngle(), 0.0);
+		}
+	}
+
+	@Test
+	public void isNotUpdatedIfNobodyIsLooking() {
+		narjillo.tick();
+		narjillo.publishSnapshot();
+
+		assertEquals(0, narjillo.getSnapshot().getAge());
+	}
+}
@@ -1,5 +1,6 @@
 package org.nusco.narjillos.creature;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -7,8 +8,12 @@ import static org.mockito.Mockito.when;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.things.Energy;
 import org.nusco.narjillos.core.things.LifeFormEnergy;
+import org.nusco.narjillos.core.things.Space;
+import org.nusco.narjillos.core.utilities.NumGen;
+import org.nusco.narjillos.genomics.DNA;
 
 public class NarjilloTest {
 
@@ -29,4 +34,18 @@ public class NarjilloTest {
 
 		assertThat(narjillo.isDead(), is(true));
 	}
+
+	@Test
+	public void touchesTheNarjillosThatItsOrgansComeCloseTo() {
+		NumGen numGen = new NumGen(1234);
+		Narjillo narjillo = new Narjillo(DNA.random(1, numGen), Vector.cartesian(0, 0), 90, Energy.INFINITE);
+		Narjillo twin = new Narjillo(narjillo.getDNA(), Vector.cartesian(1, 1), 90, Energy.INFINITE);
+		Narjillo farAway = new Narjillo(narjillo.getDNA(), Vector.cartesian(100_000, 0), 90, Energy.INFINITE);
+		Space space = new Space();
+		space.add(narjillo);
+		space.add(twin);
+		space.add(farAway);
+
+		assertThat(space.detectContacts(narjillo, space.getTypeId(Narjillo.LABEL)), contains(twin));
+	}
 }
@@ -0,0 +1,72 @@
+package org.nusco.narjillos.creature.body;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.nusco.narjillos.core.geometry.Vector;
+
+public class AdultLayoutTest {
+
+	@Test
+	public void knowsWhetherAllOrgansAreFullyGrown() {
+		Head head = createHead();
+
+		assertFalse(AdultLayout.isFullyGrown(new Body(head).getOrgans()));
+
+		head.growToAdultFormWithChildren();
+
+		assertTrue(AdultLayout.isFullyGrown(new Body(head).getOrgans()));
+	}
+
+	@Test
+	public void movesTheOrgansExactlyLikeTheHead() {
+		Head head = createAdultHead();
+		Head sameHead = createAdultHead();
+		AdultLayout layout = new AdultLayout(sameHead);
+
+		for (int i = 0; i < 100; i++) {
+			head.tick(i * 0.7);
+			layout.tick(i * 0.7);
+			assertSamePositions(head, sameHead);
+
+			head.rotateBy(i * 0.3);
+			layout.rotateBy(i * 0.3);
+			assertSamePositions(head, sameHead);
+
+			head.translateBy(Vector.cartesian(i, -i * 2));
+			layout.translateBy(Vector.cartesian(i, -i * 2));
+			assertSamePositions(head, sameHead);
+		}
+	}
+
+	private Head createAdultHead() {
+		Head result = createHead();
+		result.growToAdultFormWithChildren();
+		return result;
+	}
+
+	private Head createHead() {
+		Head head = new Head(new HeadParameters(10, 10));
+		BodyPart neck = new BodyPart(new BodyPartParameters(20, 5, head, 30));
+		head.addChild(neck);
+		neck.addChild(new BodyPart(new BodyPartParameters(15, 3, neck, -45)));
+		neck.addChild(new BodyPart(new BodyPartParameters(15, 3, neck, 45)));
+		head.addChild(new BodyPart(new BodyPartParameters(25, 0, head, -60)));
+		return head;
+	}
+
+	private void assertSamePositions(Head head, Head sameHead) {
+		List<ConnectedOrgan> organs = new Body(head).getOrgans();
+		List<ConnectedOrgan> sameOrgans = new Body(sameHead).getOrgans();
+		for (int i = 0; i < organs.size(); i++) {
+			assertEquals(organs.get(i).getStartPoint(), sameOrgans.get(i).getStartPoint());
+			assertEquals(organs.get(i).getEndPoint(), sameOrgans.get(i).getEndPoint());
+			assertEquals(organs.get(i).getCenterOfMass(), sameOrgans.get(i).getCenterOfMass());
+			assertEquals(organs.get(i).getMass(), sameOrgans.get(i).getMass(), 0.0);
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package org.nusco.narjillos.creature.body;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 import org.nusco.narjillos.core.chemistry.Element;
@@ -70,6 +72,49 @@ public class BodyTest {
 		assertEquals(24, boundingBox.top, 0.0);
 	}
 
+	@Test
+	public void keepsAHierarchyOfItsOrgansUpToDate() {
+		Head head = new Head(new HeadParameters(10, 1));
+		head.addChild(new BodyPart(new BodyPartParameters(20, 1, head, 90)));
+		Body body = new Body(head);
+		body.growToAdultForm();
+
+		body.forcePosition(Vector.cartesian(3, 4), 0);
+
+		assertTrue(body.getOrgansHierarchy().isCloseTo(Vector.cartesian(13, 24), 0.001));
+		assertFalse(body.getOrgansHierarchy().isCloseTo(Vector.cartesian(3, 24), 1));
+
+		body.forcePosition(Vector.cartesian(100, 100), 0);
+
+		assertTrue(body.getOrgansHierarchy().isCloseTo(Vector.cartesian(110, 120), 0.001));
+		assertFalse(body.getOrgansHierarchy().isCloseTo(Vector.cartesian(13, 24), 1));
+	}
+
+	@Test
+	public void itsTickCostGrowsWithTheNumberOfOrgans() {
+		Head head = new Head(new HeadParameters(10, 1));
+		Body smallBody = new Body(head);
+		smallBody.growToAdultForm();
+
+		Head otherHead = new Head(new HeadParameters(10, 1));
+		otherHead.addChild(new BodyPart(new BodyPartParameters(20, 1, otherHead, 90)));
+		Body bigBody = new Body(otherHead);
+		bigBody.growToAdultForm();
+
+		assertEquals(smallBody.getTickCost() * 2, bigBody.getTickCost());
+	}
+
+	@Test
+	public void itsTickCostIsHigherWhileItsGrowing() {
+		Head head = new Head(new HeadParameters(10, 1));
+		Body body = new Body(head);
+		int growingCost = body.getTickCost();
+
+		body.growToAdultForm();
+
+		assertTrue(growingCost > body.getTickCost());
+	}
+
 	@Test
 	public void itsMinimumRadiusIsOne() {
 		Head head = new Head(new HeadParameters(0, 1));
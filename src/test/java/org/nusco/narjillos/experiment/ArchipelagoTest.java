@@ -0,0 +1,97 @@
+package org.nusco.narjillos.experiment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.nusco.narjillos.creature.Egg;
+import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.genomics.DNA;
+import org.nusco.narjillos.genomics.DNALog;
+import org.nusco.narjillos.genomics.VolatileDNALog;
+
+public class ArchipelagoTest {
+
+	private final List<Archipelago> archipelagos = new ArrayList<>();
+
+	@After
+	public void tearDown() {
+		archipelagos.forEach(Archipelago::terminate);
+	}
+
+	@Test
+	public void ticksAllTheIslands() {
+		Archipelago archipelago = createArchipelago(new ArrayList<>(), 1000);
+
+		for (int i = 0; i < 10; i++)
+			archipelago.tick();
+
+		assertEquals(10, archipelago.getTotalTicks());
+		for (Experiment island : archipelago.getIslands())
+			assertEquals(10, island.getTicksChronometer().getTotalTicks());
+	}
+
+	@Test
+	public void movesEggsToTheNextIsland() {
+		List<DNALog> dnaLogs = new ArrayList<>();
+		Archipelago archipelago = createArchipelago(dnaLogs, 1);
+		Experiment firstIsland = archipelago.getIslands().get(0);
+		long numberOfEggs = firstIsland.getEcosystem().getCount(Egg.LABEL);
+		DNA migrantDna = ((Egg) archipelago.getIslands().get(2).getEcosystem().getAll(Egg.LABEL).get(0)).getDNA();
+
+		archipelago.tick();
+		// The DNA log catches up in the background
+		firstIsland.awaitBookkeeping();
+
+		// One egg left, and one came in
+		assertEquals(numberOfEggs, firstIsland.getEcosystem().getCount(Egg.LABEL));
+
+		DNA immigrantDna = getLastDna(dnaLogs.get(0));
+		assertEquals(DNA.NO_PARENT, immigrantDna.getParentId());
+		assertEquals(migrantDna.toString(), immigrantDna.toString());
+	}
+
+	@Test
+	public void isDeterministic() {
+		Archipelago archipelago1 = createArchipelago(new ArrayList<>(), 10);
+		Archipelago archipelago2 = createArchipelago(new ArrayList<>(), 10);
+
+		for (int i = 0; i < 50; i++) {
+			archipelago1.tick();
+			archipelago2.tick();
+		}
+
+		for (int i = 0; i < 3; i++) {
+			Experiment island1 = archipelago1.getIslands().get(i);
+			Experiment island2 = archipelago2.getIslands().get(i);
+			assertEquals(island1.getEcosystem().getCount(Narjillo.LABEL), island2.getEcosystem().getCount(Narjillo.LABEL));
+			assertEquals(island1.getEcosystem().getCount(Egg.LABEL), island2.getEcosystem().getCount(Egg.LABEL));
+			assertEquals(getPositions(island1), getPositions(island2));
+		}
+	}
+
+	private Archipelago createArchipelago(List<DNALog> dnaLogs, int migrationInterval) {
+		Archipelago result = new Archipelago(new long[] { 1, 2, 3 }, 2000, "test", () -> {
+			DNALog dnaLog = new VolatileDNALog();
+			dnaLogs.add(dnaLog);
+			return dnaLog;
+		}, migrationInterval, 1);
+		archipelagos.add(result);
+		return result;
+	}
+
+	private DNA getLastDna(DNALog dnaLog) {
+		List<DNA> allDna = dnaLog.getAllDna();
+		return allDna.get(allDna.size() - 1);
+	}
+
+	private List<String> getPositions(Experiment island) {
+		List<String> result = new ArrayList<>();
+		island.getEcosystem().getAll(Narjillo.LABEL).forEach(thing -> result.add(thing.getPosition().toString()));
+		island.getEcosystem().getAll(Egg.LABEL).forEach(thing -> result.add(thing.getPosition().toString()));
+		return result;
+	}
+}
@@ -0,0 +1,69 @@
+package org.nusco.narjillos.experiment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class BookkeeperTest {
+
+	@Test
+	public void runsTheTasksOfEachBookkeeperInOrder() {
+		List<Bookkeeper> bookkeepers = new ArrayList<>();
+		List<List<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			bookkeepers.add(new Bookkeeper());
+			results.add(Collections.synchronizedList(new ArrayList<>()));
+		}
+
+		for (int task = 0; task < 2_000; task++) {
+			for (int i = 0; i < bookkeepers.size(); i++) {
+				List<Integer> result = results.get(i);
+				int value = task;
+				bookkeepers.get(i).execute(() -> result.add(value));
+			}
+		}
+
+		for (int i = 0; i < bookkeepers.size(); i++) {
+			bookkeepers.get(i).await();
+			assertEquals(2_000, results.get(i).size());
+			for (int task = 0; task < 2_000; task++)
+				assertEquals(task, (int) results.get(i).get(task));
+		}
+	}
+
+	@Test
+	public void sharesAFewThreadsAmongAllTheBookkeepers() {
+		Set<String> threadNames = Collections.synchronizedSet(new HashSet<>());
+		List<Bookkeeper> bookkeepers = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Bookkeeper bookkeeper = new Bookkeeper();
+			bookkeeper.execute(() -> threadNames.add(Thread.currentThread().getName()));
+			bookkeepers.add(bookkeeper);
+		}
+
+		for (Bookkeeper bookkeeper : bookkeepers)
+			bookkeeper.await();
+
+		assertTrue(threadNames.size() <= 2);
+		for (String threadName : threadNames)
+			assertTrue(threadName.startsWith("bookkeeper-"));
+	}
+
+	@Test
+	public void runsTheTasksInTheCallingThreadOnceTerminated() {
+		Bookkeeper bookkeeper = new Bookkeeper();
+		bookkeeper.terminate();
+
+		List<String> threadNames = new ArrayList<>();
+		bookkeeper.execute(() -> threadNames.add(Thread.currentThread().getName()));
+
+		assertEquals(Thread.currentThread().getName(), threadNames.get(0));
+	}
+}
@@ -0,0 +1,13 @@
+package org.nusco.narjillos.experiment;
+
+import org.nusco.narjillos.genomics.DNALog;
+import org.nusco.narjillos.genomics.DNALogTest;
+import org.nusco.narjillos.genomics.VolatileDNALog;
+
+public class PipelinedDNALogTest extends DNALogTest {
+
+	@Override
+	protected DNALog createNewInstance() {
+		return new PipelinedDNALog(new VolatileDNALog(), new Bookkeeper());
+	}
+}
@@ -0,0 +1,70 @@
+package org.nusco.narjillos.experiment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PipelinedHistoryLogTest {
+
+	@Test
+	public void readsWaitForThePendingWrites() {
+		SlowHistoryLog target = new SlowHistoryLog();
+		HistoryLog historyLog = new PipelinedHistoryLog(target, new Bookkeeper());
+
+		for (int i = 0; i < 10; i++)
+			historyLog.saveEntry(createEntry(i));
+
+		assertEquals(10, historyLog.getEntries().size());
+		assertEquals(9, historyLog.getLatestEntry().ticks);
+	}
+
+	@Test
+	public void savesTheEntriesInOrder() {
+		SlowHistoryLog target = new SlowHistoryLog();
+		HistoryLog historyLog = new PipelinedHistoryLog(target, new Bookkeeper());
+		ExperimentHistoryEntry first = createEntry(1);
+		ExperimentHistoryEntry second = createEntry(2);
+
+		historyLog.saveEntry(first);
+		historyLog.saveEntry(second);
+
+		assertSame(first, historyLog.getEntries().get(0));
+		assertSame(second, historyLog.getEntries().get(1));
+	}
+
+	private ExperimentHistoryEntry createEntry(long ticks) {
+		return new ExperimentHistoryEntry(ticks, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+	}
+
+	// Takes a while to write, like a database.
+	private static class SlowHistoryLog implements HistoryLog {
+
+		private final List<ExperimentHistoryEntry> entries = new ArrayList<>();
+
+		@Override
+		public synchronized List<ExperimentHistoryEntry> getEntries() {
+			return new ArrayList<>(entries);
+		}
+
+		@Override
+		public synchronized ExperimentHistoryEntry getLatestEntry() {
+			return entries.isEmpty() ? null : entries.get(entries.size() - 1);
+		}
+
+		@Override
+		public void saveEntry(ExperimentHistoryEntry entry) {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			synchronized (this) {
+				entries.add(entry);
+			}
+		}
+	}
+}
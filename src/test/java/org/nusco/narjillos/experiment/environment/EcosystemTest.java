@@ -4,18 +4,23 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.nusco.narjillos.core.configuration.Configuration;
 import org.nusco.narjillos.core.geometry.Vector;
 import org.nusco.narjillos.core.things.Energy;
 import org.nusco.narjillos.core.things.Thing;
 import org.nusco.narjillos.core.utilities.NumGen;
 import org.nusco.narjillos.creature.Narjillo;
 import org.nusco.narjillos.genomics.DNA;
+import org.nusco.narjillos.genomics.VolatileDNALog;
 
 public class EcosystemTest {
 
+	private static final int NUMBER_OF_ADULTS = 8;
+
 	private Ecosystem ecosystem;
 
 	private FoodPellet foodPellet1;
@@ -45,6 +50,81 @@ public class EcosystemTest {
 		return result;
 	}
 
+	@Test
+	public void tilesDontChangeTheResultsOfTheSimulation() {
+		Ecosystem untiledEcosystem = new Ecosystem(4000);
+		Ecosystem tiledEcosystem = new Ecosystem(4000);
+		tiledEcosystem.setTilesPerEdge(3);
+		NumGen untiledNumGen = new NumGen(42);
+		NumGen tiledNumGen = new NumGen(42);
+		untiledEcosystem.populate(new VolatileDNALog(), untiledNumGen);
+		tiledEcosystem.populate(new VolatileDNALog(), tiledNumGen);
+
+		VolatileDNALog untiledDnaLog = new VolatileDNALog();
+		VolatileDNALog tiledDnaLog = new VolatileDNALog();
+		// Long enough for the eggs to hatch and the narjillos to move around
+		for (int i = 0; i < 1500; i++) {
+			untiledEcosystem.tick(untiledDnaLog, untiledNumGen);
+			tiledEcosystem.tick(tiledDnaLog, tiledNumGen);
+		}
+
+		assertTrue(untiledEcosystem.getCount(Narjillo.LABEL) > 0);
+		assertEquals(getPositions(untiledEcosystem), getPositions(tiledEcosystem));
+		assertEquals(untiledEcosystem.getCount(FoodPellet.LABEL), tiledEcosystem.getCount(FoodPellet.LABEL));
+
+		untiledEcosystem.terminate();
+		tiledEcosystem.terminate();
+	}
+
+	@Test
+	public void reproductionDoesntDependOnTheNumberOfThreads() {
+		TickExecutor singleThreadExecutor = TickExecutor.create(ExecutionStrategy.THREAD_POOL, 1);
+		TickExecutor multiThreadExecutor = TickExecutor.create(ExecutionStrategy.THREAD_POOL, 4);
+		Ecosystem singleThreadEcosystem = createEcosystemWithAdults(singleThreadExecutor);
+		Ecosystem multiThreadEcosystem = createEcosystemWithAdults(multiThreadExecutor);
+		NumGen singleThreadNumGen = new NumGen(42);
+		NumGen multiThreadNumGen = new NumGen(42);
+		VolatileDNALog singleThreadDnaLog = new VolatileDNALog();
+		VolatileDNALog multiThreadDnaLog = new VolatileDNALog();
+
+		// Long enough for the adults to lay eggs, and for the eggs to hatch
+		for (int i = 0; i < 1500; i++) {
+			singleThreadEcosystem.tick(singleThreadDnaLog, singleThreadNumGen);
+			multiThreadEcosystem.tick(multiThreadDnaLog, multiThreadNumGen);
+		}
+
+		assertTrue(singleThreadEcosystem.getCount(Narjillo.LABEL) > NUMBER_OF_ADULTS);
+		assertEquals(getGenes(singleThreadDnaLog), getGenes(multiThreadDnaLog));
+		assertEquals(getPositions(singleThreadEcosystem), getPositions(multiThreadEcosystem));
+
+		singleThreadExecutor.shutdown();
+		multiThreadExecutor.shutdown();
+	}
+
+	private Ecosystem createEcosystemWithAdults(TickExecutor executor) {
+		Ecosystem result = new Ecosystem(2000, executor);
+		NumGen numGen = new NumGen(1234);
+		for (int i = 1; i <= NUMBER_OF_ADULTS; i++) {
+			Narjillo adult = new Narjillo(DNA.random(i, numGen), Vector.cartesian(i * 200, i * 200), 90, Energy.INFINITE);
+			while (adult.getAge() < Configuration.CREATURE_MATURE_AGE)
+				adult.tick();
+			result.insert(adult);
+		}
+		return result;
+	}
+
+	private List<String> getGenes(VolatileDNALog dnaLog) {
+		return dnaLog.getAllDna().stream()
+			.map(dna -> dna.getId() + ":" + dna.toString())
+			.collect(Collectors.toList());
+	}
+
+	private List<String> getPositions(Ecosystem ecosystem) {
+		return ecosystem.getAll(Narjillo.LABEL).stream()
+			.map(narjillo -> narjillo.getPosition().toString())
+			.collect(Collectors.toList());
+	}
+
 	@Test
 	public void returnsAllTheThings() {
 		List<Thing> things = ecosystem.getAll("");
@@ -0,0 +1,134 @@
+package org.nusco.narjillos.experiment.environment;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.things.Energy;
+import org.nusco.narjillos.core.things.Space;
+import org.nusco.narjillos.core.utilities.NumGen;
+import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.genomics.DNA;
+
+public class FoodTargetsTest {
+
+	private final Space space = new Space();
+
+	private final FoodTargets foodTargets = new FoodTargets(space, space.getTypeId(FoodPellet.LABEL), Vector.cartesian(500, 500));
+
+	private final NumGen numGen = new NumGen(1234);
+
+	@Test
+	public void pointsNarjillosAtTheCenterIfThereIsNoFood() {
+		Narjillo narjillo = addNarjillo(Vector.cartesian(100, 100));
+
+		assertEquals(Vector.cartesian(500, 500), narjillo.getTarget());
+	}
+
+	@Test
+	public void pointsNewNarjillosAtTheClosestFood() {
+		FoodPellet closeFood = addFood(Vector.cartesian(200, 200));
+		addFood(Vector.cartesian(900, 900));
+
+		Narjillo narjillo = addNarjillo(Vector.cartesian(100, 100));
+
+		assertEquals(closeFood.getPosition(), narjillo.getTarget());
+	}
+
+	@Test
+	public void keepsTheCurrentTargetsOfNewNarjillos() {
+		addFood(Vector.cartesian(200, 200));
+		FoodPellet farFood = addFood(Vector.cartesian(900, 900));
+		Narjillo narjillo = createNarjillo(Vector.cartesian(100, 100));
+		narjillo.setTarget(farFood.getPosition());
+
+		space.add(narjillo);
+		foodTargets.addNarjillo(narjillo);
+
+		assertEquals(farFood.getPosition(), narjillo.getTarget());
+	}
+
+	@Test
+	public void retargetsTheNarjillosThatAreCloserToNewFood() {
+		FoodPellet food = addFood(Vector.cartesian(500, 500));
+		Narjillo narjillo1 = addNarjillo(Vector.cartesian(100, 100));
+		Narjillo narjillo2 = addNarjillo(Vector.cartesian(900, 900));
+
+		FoodPellet newFood = addFood(Vector.cartesian(150, 150));
+
+		assertEquals(newFood.getPosition(), narjillo1.getTarget());
+		assertEquals(food.getPosition(), narjillo2.getTarget());
+	}
+
+	@Test
+	public void retargetsTheNarjillosThatWereGoingForFoodThatDisappeared() {
+		FoodPellet food1 = addFood(Vector.cartesian(150, 150));
+		FoodPellet food2 = addFood(Vector.cartesian(900, 900));
+		Narjillo narjillo1 = addNarjillo(Vector.cartesian(100, 100));
+		Narjillo narjillo2 = addNarjillo(Vector.cartesian(1000, 1000));
+
+		space.remove(food1);
+		foodTargets.removeFood(food1);
+
+		assertEquals(food2.getPosition(), narjillo1.getTarget());
+		assertEquals(food2.getPosition(), narjillo2.getTarget());
+
+		space.remove(food2);
+		foodTargets.removeFood(food2);
+
+		assertEquals(Vector.cartesian(500, 500), narjillo1.getTarget());
+		assertEquals(Vector.cartesian(500, 500), narjillo2.getTarget());
+	}
+
+	@Test
+	public void ignoresFoodThatDisappearedWhileTheSpaceIsFrozen() {
+		FoodPellet food1 = addFood(Vector.cartesian(150, 150));
+		FoodPellet food2 = addFood(Vector.cartesian(900, 900));
+		Narjillo narjillo = addNarjillo(Vector.cartesian(100, 100));
+
+		space.freeze();
+		space.remove(food1);
+		foodTargets.removeFood(food1);
+		space.commit();
+
+		assertEquals(food2.getPosition(), narjillo.getTarget());
+	}
+
+	@Test
+	public void pointsNarjillosWithoutFoodAtNewFoodFarAway() {
+		Narjillo narjillo = addNarjillo(Vector.cartesian(100, 100));
+
+		FoodPellet food = addFood(Vector.cartesian(90000, 90000));
+
+		assertEquals(food.getPosition(), narjillo.getTarget());
+	}
+
+	@Test
+	public void retargetsEverybodyOnDemand() {
+		FoodPellet food = addFood(Vector.cartesian(150, 150));
+		Narjillo narjillo = addNarjillo(Vector.cartesian(100, 100));
+		narjillo.setTarget(Vector.ZERO);
+
+		foodTargets.retargetAll();
+
+		assertEquals(food.getPosition(), narjillo.getTarget());
+	}
+
+	private FoodPellet addFood(Vector position) {
+		FoodPellet result = new FoodPellet(position);
+		space.add(result);
+		foodTargets.addFood(result);
+		return result;
+	}
+
+	private Narjillo addNarjillo(Vector position) {
+		Narjillo result = createNarjillo(position);
+		space.add(result);
+		foodTargets.addNarjillo(result);
+		return result;
+	}
+
+	private Narjillo createNarjillo(Vector position) {
+		return new Narjillo(DNA.random(1, numGen), position, 90, Energy.INFINITE);
+	}
+}
@@ -0,0 +1,37 @@
+package org.nusco.narjillos.experiment.environment;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+public class TickChunkTest {
+
+	@Test
+	public void splitsEvenCostsIntoChunksOfTheSameSize() {
+		long[] cumulativeCosts = { 0, 10, 20, 30, 40 };
+
+		assertArrayEquals(new int[] { 0, 2, 4 }, TickChunk.getChunkBoundaries(cumulativeCosts, 2));
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, TickChunk.getChunkBoundaries(cumulativeCosts, 4));
+	}
+
+	@Test
+	public void splitsUnevenCostsIntoChunksOfAboutTheSameCost() {
+		// One expensive narjillo, followed by many cheap ones
+		long[] cumulativeCosts = { 0, 100, 110, 120, 130, 140, 150, 160, 170, 180, 190, 200 };
+
+		assertArrayEquals(new int[] { 0, 1, 11 }, TickChunk.getChunkBoundaries(cumulativeCosts, 2));
+	}
+
+	@Test
+	public void neverReturnsEmptyChunks() {
+		long[] cumulativeCosts = { 0, 10, 20, 1000 };
+
+		assertArrayEquals(new int[] { 0, 2, 3 }, TickChunk.getChunkBoundaries(cumulativeCosts, 4));
+		assertArrayEquals(new int[] { 0, 1 }, TickChunk.getChunkBoundaries(new long[] { 0, 10 }, 8));
+	}
+
+	@Test
+	public void returnsNoChunksIfThereAreNoNarjillos() {
+		assertArrayEquals(new int[] { 0 }, TickChunk.getChunkBoundaries(new long[] { 0 }, 4));
+	}
+}
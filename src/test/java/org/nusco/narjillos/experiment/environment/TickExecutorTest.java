@@ -0,0 +1,51 @@
+package org.nusco.narjillos.experiment.environment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Test;
+
+public class TickExecutorTest {
+
+	@Test
+	public void returnsTheResultsInTheOrderOfTheTasks() {
+		for (ExecutionStrategy strategy : ExecutionStrategy.values()) {
+			TickExecutor executor;
+			try {
+				executor = TickExecutor.create(strategy);
+			} catch (IllegalStateException e) {
+				continue; // no virtual threads on this Java
+			}
+
+			List<Callable<Integer>> tasks = new ArrayList<>();
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				int result = i;
+				tasks.add(() -> result);
+				expected.add(i);
+			}
+
+			try {
+				assertEquals(expected, executor.invokeAll(tasks));
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void parsesTheNamesOfStrategies() {
+		assertEquals(ExecutionStrategy.FORK_JOIN, ExecutionStrategy.fromName("fork_join"));
+		assertEquals(ExecutionStrategy.VIRTUAL_THREADS, ExecutionStrategy.fromName(" Virtual-Threads"));
+		assertEquals(Arrays.asList(ExecutionStrategy.values()).size(), ExecutionStrategy.getNames().split(", ").length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownStrategies() {
+		ExecutionStrategy.fromName("quantum");
+	}
+}
@@ -0,0 +1,32 @@
+package org.nusco.narjillos.experiment.environment;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class TickTaskTest {
+
+	@Test
+	public void splitsRangesOfEvenCostsInTheMiddle() {
+		long[] cumulativeCosts = { 0, 10, 20, 30, 40 };
+
+		assertEquals(2, TickTask.findSplit(cumulativeCosts, 0, 4));
+		assertEquals(3, TickTask.findSplit(cumulativeCosts, 2, 4));
+	}
+
+	@Test
+	public void splitsRangesAtHalfTheirCost() {
+		// One expensive narjillo, followed by many cheap ones
+		long[] cumulativeCosts = { 0, 100, 110, 120, 130, 140, 150 };
+
+		assertEquals(1, TickTask.findSplit(cumulativeCosts, 0, 6));
+	}
+
+	@Test
+	public void alwaysLeavesAtLeastOneNarjilloOnEachSide() {
+		long[] cumulativeCosts = { 0, 10, 20, 1000 };
+
+		assertEquals(2, TickTask.findSplit(cumulativeCosts, 0, 3));
+		assertEquals(1, TickTask.findSplit(cumulativeCosts, 0, 2));
+	}
+}
@@ -0,0 +1,113 @@
+package org.nusco.narjillos.experiment.environment;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nusco.narjillos.core.geometry.FastMath;
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.things.Energy;
+import org.nusco.narjillos.core.utilities.NumGen;
+import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.genomics.DNA;
+import org.nusco.narjillos.genomics.VolatileDNALog;
+
+/**
+ * Ticks a 100x100 blocks ecosystem in 10x10 tiles on a fork-join executor,
+ * with more and more workers, and prints how much faster it gets than with
+ * a single worker.
+ * <p>
+ * Like PerformanceTest, this is a nondeterministic test that depends on the
+ * machine (and it's pointless on a single core), so it's not part of the
+ * official build. Run main() for the full measure.
+ */
+public class TiledTickPerformanceTest {
+
+	private static final long SIZE = 100_000;
+
+	private static final int TILES_PER_EDGE = 10;
+
+	private static final int NUMBER_OF_NARJILLOS = 1000;
+
+	private static final int NUMBER_OF_FOOD_PELLETS = 10_000;
+
+	// The minimum speedup with all the cores, compared to one core.
+	// It's a low bar, because some of the tick is still sequential.
+	private static final double EXPECTED_MINIMUM_SPEEDUP_PER_EXTRA_CORE = 0.3;
+
+	private int ticks;
+
+	public static void main(String[] args) {
+		TiledTickPerformanceTest test = new TiledTickPerformanceTest();
+		test.ticks = 200;
+		test.tiledTicksScaleWithTheNumberOfWorkers();
+		System.exit(0);
+	}
+
+	@Before
+	public void initializeTicks() {
+		ticks = 20;
+	}
+
+	@Test
+	public void tiledTicksScaleWithTheNumberOfWorkers() {
+		FastMath.setUp();
+
+		int numberOfCores = Runtime.getRuntime().availableProcessors();
+		double singleWorkerTicksPerSecond = measureTicksPerSecond(1);
+		System.out.println("1 worker: " + Math.round(singleWorkerTicksPerSecond) + " ticks per second");
+
+		double ticksPerSecond = singleWorkerTicksPerSecond;
+		for (int workers = 2; workers <= numberOfCores; workers *= 2) {
+			ticksPerSecond = measureTicksPerSecond(workers);
+			System.out.println(workers + " workers: " + Math.round(ticksPerSecond) + " ticks per second (" + toSpeedup(ticksPerSecond / singleWorkerTicksPerSecond) + ")");
+		}
+
+		if (numberOfCores == 1)
+			return;
+
+		double expectedSpeedup = 1 + (Integer.highestOneBit(numberOfCores) - 1) * EXPECTED_MINIMUM_SPEEDUP_PER_EXTRA_CORE;
+		double speedup = ticksPerSecond / singleWorkerTicksPerSecond;
+		assertTrue("PERFORMANCE FAILURE: tiled ticks don't scale (" + toSpeedup(speedup) + ")", speedup >= expectedSpeedup);
+	}
+
+	private double measureTicksPerSecond(int workers) {
+		TickExecutor executor = TickExecutor.create(ExecutionStrategy.FORK_JOIN, workers);
+		try {
+			Ecosystem ecosystem = createEcosystem(executor);
+			VolatileDNALog dnaLog = new VolatileDNALog();
+			NumGen numGen = new NumGen(1234);
+
+			// warm up (the first measure would be slower otherwise)
+			for (int i = 0; i < ticks; i++)
+				ecosystem.tick(dnaLog, numGen);
+
+			long startTime = System.nanoTime();
+			for (int i = 0; i < ticks; i++)
+				ecosystem.tick(dnaLog, numGen);
+			return ticks / ((System.nanoTime() - startTime) / 1_000_000_000.0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private Ecosystem createEcosystem(TickExecutor executor) {
+		Ecosystem result = new Ecosystem(SIZE, executor);
+		result.setTilesPerEdge(TILES_PER_EDGE);
+
+		NumGen numGen = new NumGen(42);
+		for (int i = 0; i < NUMBER_OF_FOOD_PELLETS; i++)
+			result.spawnFood(randomPosition(numGen));
+		for (int i = 0; i < NUMBER_OF_NARJILLOS; i++)
+			result.insert(new Narjillo(DNA.random(i, numGen), randomPosition(numGen), 90, Energy.INFINITE));
+		return result;
+	}
+
+	private static Vector randomPosition(NumGen numGen) {
+		return Vector.cartesian(numGen.nextDouble() * SIZE, numGen.nextDouble() * SIZE);
+	}
+
+	private static String toSpeedup(double speedup) {
+		return Math.round(speedup * 100) / 100.0 + "x";
+	}
+}
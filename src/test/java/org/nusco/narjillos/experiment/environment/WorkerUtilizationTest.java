@@ -0,0 +1,55 @@
+package org.nusco.narjillos.experiment.environment;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.nusco.narjillos.core.geometry.Vector;
+import org.nusco.narjillos.core.things.Energy;
+import org.nusco.narjillos.core.things.Space;
+import org.nusco.narjillos.core.utilities.NumGen;
+import org.nusco.narjillos.creature.Narjillo;
+import org.nusco.narjillos.genomics.DNA;
+
+public class WorkerUtilizationTest {
+
+	@Test
+	public void tracksTheWorkersOfAThreadPool() {
+		assertTracksWorkersByIndex(ExecutionStrategy.THREAD_POOL);
+	}
+
+	@Test
+	public void tracksTheWorkersOfVirtualThreads() {
+		assertTracksWorkersByIndex(ExecutionStrategy.VIRTUAL_THREADS);
+	}
+
+	private void assertTracksWorkersByIndex(ExecutionStrategy strategy) {
+		TickExecutor executor;
+		try {
+			executor = TickExecutor.create(strategy);
+		} catch (IllegalStateException e) {
+			return; // no virtual threads on this Java
+		}
+
+		try {
+			NumGen numGen = new NumGen(1234);
+			Narjillo[] narjillos = new Narjillo[32];
+			for (int i = 0; i < narjillos.length; i++)
+				narjillos[i] = new Narjillo(DNA.random(i, numGen), Vector.cartesian(i * 100, 0), 90, Energy.INFINITE);
+
+			Space space = new Space();
+			WorkerUtilization utilization = new WorkerUtilization();
+			executor.tick(narjillos, space, space.getTypeId("food_pellet"), utilization);
+			utilization.recordParallelTime(1);
+
+			Map<Integer, Double> utilizations = utilization.getUtilizationsInLastSecond();
+			if (executor.getParallelism() > 1)
+				assertTrue(utilizations.size() > 1);
+			for (int worker : utilizations.keySet())
+				assertTrue(worker >= 0 && worker < executor.getParallelism());
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -2,6 +2,10 @@ package org.nusco.narjillos.persistence.serialization;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Test;
 import org.nusco.narjillos.creature.Egg;
 import org.nusco.narjillos.creature.Narjillo;
@@ -30,4 +34,18 @@ public class JSONExperimentSerializationTest {
 		assertEquals(experiment.getEcosystem().getCount(Narjillo.LABEL), deserialized.getEcosystem().getCount(Narjillo.LABEL));
 		assertEquals(10, deserialized.getTicksChronometer().getTotalTicks());
 	}
+
+	@Test
+	public void deserializesExperimentsSavedByOlderVersions() throws IOException {
+		String json;
+		try (InputStream input = getClass().getResourceAsStream("experiment-0.8.1.json")) {
+			json = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+		}
+
+		Experiment deserialized = JSON.fromJson(json, Experiment.class);
+
+		assertEquals("1234-0.8.1", deserialized.getId());
+		assertEquals(50, deserialized.getTicksChronometer().getTotalTicks());
+		assertEquals(1, deserialized.getEcosystem().getCount(Egg.LABEL));
+	}
 }
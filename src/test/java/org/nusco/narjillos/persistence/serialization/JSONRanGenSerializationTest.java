@@ -2,9 +2,16 @@ package org.nusco.narjillos.persistence.serialization;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Test;
 import org.nusco.narjillos.core.utilities.NumGen;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
 public class JSONRanGenSerializationTest {
 
 	@Test
@@ -22,4 +29,24 @@ public class JSONRanGenSerializationTest {
 		assertEquals(numGen.nextDouble(), deserialized.nextDouble(), 0.0);
 		assertEquals(numGen.nextSerial(), deserialized.nextSerial());
 	}
+
+	@Test
+	public void deserializesRanGensInTheOldFormat() throws IOException {
+		// Saved by version 0.8.1, with the NumGen that wrapped a java.util.Random
+		String json = readResource("experiment-0.8.1.json");
+		JsonElement jsonNumGen = new JsonParser().parse(json).getAsJsonObject().get("numGen");
+
+		NumGen deserialized = JSON.fromJson(jsonNumGen.toString(), NumGen.class);
+
+		// The next numbers that the 0.8.1 NumGen generated after saving
+		assertEquals(0.7501014786855671, deserialized.nextDouble(), 0.0);
+		assertEquals(-2055470426, deserialized.nextInt());
+		assertEquals(2, deserialized.nextSerial());
+	}
+
+	private String readResource(String name) throws IOException {
+		try (InputStream input = getClass().getResourceAsStream(name)) {
+			return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
 }